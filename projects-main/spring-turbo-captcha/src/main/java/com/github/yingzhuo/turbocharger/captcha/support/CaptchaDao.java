@@ -3,6 +3,7 @@
 import org.jspecify.annotations.Nullable;
 
 import java.time.Duration;
+import java.util.Map;
 
 public interface CaptchaDao {
 
@@ -17,4 +18,23 @@ public default void save(String accessKey, String captchaWord) {
 
 	public void delete(String accessKey);
 
+	// 校验验证码时使用，取出后立即删除，验证码只能使用一次
+	@Nullable
+	public default String findAndDelete(String accessKey) {
+		var captchaWord = find(accessKey);
+		if (captchaWord != null) {
+			delete(accessKey);
+		}
+		return captchaWord;
+	}
+
+	public default void saveAll(Map<String, String> captchaWords) {
+		saveAll(captchaWords, null);
+	}
+
+	// 批量保存预先生成的验证码，键为 accessKey，值为验证码
+	public default void saveAll(Map<String, String> captchaWords, @Nullable Duration ttl) {
+		captchaWords.forEach((accessKey, captchaWord) -> save(accessKey, captchaWord, ttl));
+	}
+
 }
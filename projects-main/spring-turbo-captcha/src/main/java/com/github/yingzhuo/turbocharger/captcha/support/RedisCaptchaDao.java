@@ -1,9 +1,13 @@
 package com.github.yingzhuo.turbocharger.captcha.support;
 
 import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.time.Duration;
+import java.util.Map;
 
 public class RedisCaptchaDao implements CaptchaDao {
 
@@ -33,4 +37,34 @@ public void delete(String accessKey) {
 		redisTemplate.delete(accessKey);
 	}
 
+	// GETDEL 需要 redis 6.2 及以上版本
+	@Nullable
+	@Override
+	public String findAndDelete(String accessKey) {
+		return redisTemplate.opsForValue().getAndDelete(accessKey);
+	}
+
+	@Override
+	public void saveAll(Map<String, String> captchaWords, @Nullable Duration ttl) {
+		if (captchaWords.isEmpty()) {
+			return;
+		}
+
+		redisTemplate.executePipelined(new SessionCallback<>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				var valueOps = ((RedisOperations<String, String>) operations).opsForValue();
+				captchaWords.forEach((accessKey, captchaWord) -> {
+					if (ttl == null) {
+						valueOps.set(accessKey, captchaWord);
+					} else {
+						valueOps.set(accessKey, captchaWord, ttl);
+					}
+				});
+				return null;
+			}
+		});
+	}
+
 }
@@ -2,6 +2,7 @@
 
 import com.github.yingzhuo.turbocharger.aspect.AspectSpELTemplate;
 import org.jspecify.annotations.Nullable;
+import org.springframework.expression.Expression;
 import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -9,10 +10,16 @@
 import org.springframework.util.CollectionUtils;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unchecked")
 public final class SpELUtils {
 
+	// 解析后的表达式是线程安全的，可以缓存复用。缓存满后不再加入新的表达式，防止动态拼接的表达式耗尽内存
+	private static final int MAX_CACHED_EXPRESSIONS = 1024;
+	private static final SpelExpressionParser PARSER = new SpelExpressionParser(new SpelParserConfiguration(true, true));
+	private static final Map<String, Expression> EXPRESSIONS = new ConcurrentHashMap<>();
+
 	private SpELUtils() {
 		super();
 	}
@@ -44,9 +51,20 @@ public static <T> T getValue(String expression, @Nullable Object rootObject, @Nu
 			}
 		}
 
-		return (T) new SpelExpressionParser(new SpelParserConfiguration(true, true))
-			.parseExpression(expression)
-			.getValue(ctx);
+		return (T) parseExpression(expression).getValue(ctx);
+	}
+
+	private static Expression parseExpression(String expression) {
+		var parsed = EXPRESSIONS.get(expression);
+		if (parsed != null) {
+			return parsed;
+		}
+
+		parsed = PARSER.parseExpression(expression);
+		if (EXPRESSIONS.size() < MAX_CACHED_EXPRESSIONS) {
+			EXPRESSIONS.putIfAbsent(expression, parsed);
+		}
+		return parsed;
 	}
 
 }
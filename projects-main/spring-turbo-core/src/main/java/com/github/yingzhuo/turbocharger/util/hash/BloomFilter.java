@@ -2,12 +2,37 @@
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface BloomFilter {
 
 	public void add(String element);
 
+	public default void addAll(Collection<String> elements) {
+		elements.forEach(this::add);
+	}
+
 	public boolean mightContain(@Nullable String element);
 
+	public default boolean mightContainAll(Collection<@Nullable String> elements) {
+		for (var element : elements) {
+			if (!mightContain(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public default List<Boolean> mightContainEach(List<@Nullable String> elements) {
+		var result = new ArrayList<Boolean>(elements.size());
+		for (var element : elements) {
+			result.add(mightContain(element));
+		}
+		return result;
+	}
+
 	public default boolean notContain(@Nullable String element) {
 		return !mightContain(element);
 	}
@@ -0,0 +1,48 @@
+package com.github.yingzhuo.turbocharger.util.hash;
+
+import org.springframework.util.Assert;
+
+public final class BloomFilterUtils {
+
+	// 参考资料: https://en.wikipedia.org/wiki/Bloom_filter#Optimal_number_of_hash_functions
+
+	private BloomFilterUtils() {
+		super();
+	}
+
+	public static long optimalNumOfBits(long expectedInsertions, double falsePositiveRate) {
+		Assert.isTrue(expectedInsertions > 0, "expectedInsertions should > 0");
+		Assert.isTrue(falsePositiveRate > 0.0 && falsePositiveRate < 1.0, "falsePositiveRate should between 0 and 1");
+
+		return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+	}
+
+	public static int optimalNumOfHashFunctions(long expectedInsertions, long numOfBits) {
+		Assert.isTrue(expectedInsertions > 0, "expectedInsertions should > 0");
+		Assert.isTrue(numOfBits > 0, "numOfBits should > 0");
+
+		return Math.max(1, (int) Math.round((double) numOfBits / expectedInsertions * Math.log(2)));
+	}
+
+	public static long[] indexes(String element, int numOfHashFunctions, long numOfBits) {
+		var indexes = new long[numOfHashFunctions];
+		indexes(element, numOfHashFunctions, numOfBits, indexes, 0);
+		return indexes;
+	}
+
+	public static void indexes(String element, int numOfHashFunctions, long numOfBits, long[] dest, int destOffset) {
+		var hash = Murmur3HashFunction.hash128(element);
+		indexes(hash[0], hash[1], numOfHashFunctions, numOfBits, dest, destOffset);
+	}
+
+	public static void indexes(long hash1, long hash2, int numOfHashFunctions, long numOfBits, long[] dest, int destOffset) {
+		// Kirsch-Mitzenmacher 双重哈希: 由一次128位哈希的两个64位分量推导出k个位下标
+		var combined = hash1;
+		for (int i = 0; i < numOfHashFunctions; i++) {
+			// 与 Long.MAX_VALUE 按位与保证非负
+			dest[destOffset + i] = (combined & Long.MAX_VALUE) % numOfBits;
+			combined += hash2;
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.github.yingzhuo.turbocharger.util.hash;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class LocalBloomFilter implements BloomFilter {
+
+	/*
+	 * 进程内布隆过滤器，位图为一个 long[]，设置位时使用原子的按位或操作，无锁且线程安全。
+	 * 下标由一次 Murmur3-128 哈希经双重哈希推导，可以与 DistributedBloomFilter#create 创建的过滤器使用相同的参数。
+	 *
+	 * 文件格式 (小端序):
+	 *     int  : 魔数
+	 *     long : 位数
+	 *     int  : 哈希函数个数
+	 *     long[]: 位图
+	 */
+
+	private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final int FILE_MAGIC = 0x53544246; // STBF
+	private static final int FILE_HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+	private static final long MAX_MAPPED_REGION_SIZE = 1L << 30;
+
+	private final long[] words;
+	private final long numOfBits;
+	private final int numOfHashFunctions;
+
+	public LocalBloomFilter(long numOfBits, int numOfHashFunctions) {
+		Assert.isTrue(numOfBits > 0, "numOfBits should > 0");
+		Assert.isTrue(numOfHashFunctions > 0, "numOfHashFunctions should > 0");
+
+		var numOfWords = (numOfBits + 63) >>> 6;
+		Assert.isTrue(numOfWords <= Integer.MAX_VALUE - 8, "numOfBits too large");
+
+		this.words = new long[(int) numOfWords];
+		this.numOfBits = numOfBits;
+		this.numOfHashFunctions = numOfHashFunctions;
+	}
+
+	public static LocalBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+		var numOfBits = BloomFilterUtils.optimalNumOfBits(expectedInsertions, falsePositiveRate);
+		return new LocalBloomFilter(numOfBits, BloomFilterUtils.optimalNumOfHashFunctions(expectedInsertions, numOfBits));
+	}
+
+	public static LocalBloomFilter readFrom(Path path) {
+		Assert.notNull(path, "path is required");
+
+		try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			Assert.isTrue(header.getInt() == FILE_MAGIC, "not a bloom filter file");
+
+			var filter = new LocalBloomFilter(header.getLong(), header.getInt());
+			filter.transfer(channel, FileChannel.MapMode.READ_ONLY);
+			return filter;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void add(String element) {
+		Assert.notNull(element, "element is null");
+
+		for (var index : BloomFilterUtils.indexes(element, numOfHashFunctions, numOfBits)) {
+			var mask = 1L << index;
+			var i = (int) (index >>> 6);
+
+			// 已经置位时不做写操作，避免缓存行失效
+			if (((long) WORDS.getAcquire(words, i) & mask) == 0L) {
+				WORDS.getAndBitwiseOr(words, i, mask);
+			}
+		}
+	}
+
+	@Override
+	public boolean mightContain(@Nullable String element) {
+		// null认为不存在
+		if (element == null) {
+			return false;
+		}
+
+		for (var index : BloomFilterUtils.indexes(element, numOfHashFunctions, numOfBits)) {
+			if (((long) WORDS.getAcquire(words, (int) (index >>> 6)) & (1L << index)) == 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void merge(BloomFilter other) {
+		Assert.notNull(other, "other is required");
+		Assert.isTrue(other instanceof LocalBloomFilter, "other should be a LocalBloomFilter");
+
+		var that = (LocalBloomFilter) other;
+		Assert.isTrue(that != this, "cannot merge with itself");
+		Assert.isTrue(that.numOfBits == numOfBits && that.numOfHashFunctions == numOfHashFunctions, "incompatible bloom filter");
+
+		for (int i = 0; i < words.length; i++) {
+			var w = (long) WORDS.getAcquire(that.words, i);
+			if (w != 0L) {
+				WORDS.getAndBitwiseOr(words, i, w);
+			}
+		}
+	}
+
+	public void writeTo(Path path) {
+		Assert.notNull(path, "path is required");
+
+		var options = new StandardOpenOption[]{
+			StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING,
+			StandardOpenOption.READ,
+			StandardOpenOption.WRITE
+		};
+
+		try (var channel = FileChannel.open(path, options)) {
+			var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_SIZE);
+			header.order(ByteOrder.LITTLE_ENDIAN)
+				.putInt(FILE_MAGIC)
+				.putLong(numOfBits)
+				.putInt(numOfHashFunctions);
+			header.force();
+
+			transfer(channel, FileChannel.MapMode.READ_WRITE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// 位图按块映射，单个 MappedByteBuffer 最大只能映射2GB
+	private void transfer(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+		var wordsPerRegion = (int) (MAX_MAPPED_REGION_SIZE / Long.BYTES);
+
+		for (int from = 0; from < words.length; from += wordsPerRegion) {
+			var count = Math.min(wordsPerRegion, words.length - from);
+			var position = FILE_HEADER_SIZE + (long) from * Long.BYTES;
+			var region = channel.map(mode, position, (long) count * Long.BYTES);
+			var buffer = region.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+
+			if (mode == FileChannel.MapMode.READ_ONLY) {
+				buffer.get(words, from, count);
+			} else {
+				for (int i = from; i < from + count; i++) {
+					buffer.put((long) WORDS.getAcquire(words, i));
+				}
+				region.force();
+			}
+		}
+	}
+
+	public long getNumOfBits() {
+		return numOfBits;
+	}
+
+	public int getNumOfHashFunctions() {
+		return numOfHashFunctions;
+	}
+
+	public long getBitCount() {
+		var count = 0L;
+		for (int i = 0; i < words.length; i++) {
+			count += Long.bitCount((long) WORDS.getAcquire(words, i));
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.github.yingzhuo.turbocharger.util.hash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class Murmur3HashFunction implements HashFunction {
+
+	// MurmurHash3 x64 128位版本，非加密哈希，比消息摘要算法快得多
+
+	private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final long C1 = 0x87c37b91114253d5L;
+	private static final long C2 = 0x4cf5ad432745937fL;
+
+	private final int seed;
+
+	public Murmur3HashFunction() {
+		this(0);
+	}
+
+	public Murmur3HashFunction(int seed) {
+		this.seed = seed;
+	}
+
+	public static HashFunction getInstance() {
+		return SyncAvoid.INSTANCE;
+	}
+
+	public static long[] hash128(String key) {
+		return hash128(key.getBytes(StandardCharsets.UTF_8), 0);
+	}
+
+	public static long[] hash128(byte[] data, int seed) {
+		var length = data.length;
+		var h1 = seed & 0xFFFFFFFFL;
+		var h2 = seed & 0xFFFFFFFFL;
+
+		var blocks = length >>> 4;
+		for (int i = 0; i < blocks; i++) {
+			var k1 = (long) LONG_LE.get(data, i << 4);
+			var k2 = (long) LONG_LE.get(data, (i << 4) + 8);
+
+			h1 ^= mixK1(k1);
+			h1 = Long.rotateLeft(h1, 27);
+			h1 += h2;
+			h1 = h1 * 5 + 0x52dce729;
+
+			h2 ^= mixK2(k2);
+			h2 = Long.rotateLeft(h2, 31);
+			h2 += h1;
+			h2 = h2 * 5 + 0x38495ab5;
+		}
+
+		var tail = blocks << 4;
+		var k1 = 0L;
+		var k2 = 0L;
+
+		// @formatter:off
+		switch (length & 15) {
+			case 15: k2 ^= (long) (data[tail + 14] & 0xFF) << 48;
+			case 14: k2 ^= (long) (data[tail + 13] & 0xFF) << 40;
+			case 13: k2 ^= (long) (data[tail + 12] & 0xFF) << 32;
+			case 12: k2 ^= (long) (data[tail + 11] & 0xFF) << 24;
+			case 11: k2 ^= (long) (data[tail + 10] & 0xFF) << 16;
+			case 10: k2 ^= (long) (data[tail + 9] & 0xFF) << 8;
+			case 9:  k2 ^= data[tail + 8] & 0xFF;
+				h2 ^= mixK2(k2);
+			case 8:  k1 ^= (long) (data[tail + 7] & 0xFF) << 56;
+			case 7:  k1 ^= (long) (data[tail + 6] & 0xFF) << 48;
+			case 6:  k1 ^= (long) (data[tail + 5] & 0xFF) << 40;
+			case 5:  k1 ^= (long) (data[tail + 4] & 0xFF) << 32;
+			case 4:  k1 ^= (long) (data[tail + 3] & 0xFF) << 24;
+			case 3:  k1 ^= (long) (data[tail + 2] & 0xFF) << 16;
+			case 2:  k1 ^= (long) (data[tail + 1] & 0xFF) << 8;
+			case 1:  k1 ^= data[tail] & 0xFF;
+				h1 ^= mixK1(k1);
+			default:
+				break;
+		}
+		// @formatter:on
+
+		h1 ^= length;
+		h2 ^= length;
+
+		h1 += h2;
+		h2 += h1;
+
+		h1 = fmix64(h1);
+		h2 = fmix64(h2);
+
+		h1 += h2;
+		h2 += h1;
+
+		return new long[]{h1, h2};
+	}
+
+	private static long mixK1(long k1) {
+		k1 *= C1;
+		k1 = Long.rotateLeft(k1, 31);
+		k1 *= C2;
+		return k1;
+	}
+
+	private static long mixK2(long k2) {
+		k2 *= C2;
+		k2 = Long.rotateLeft(k2, 33);
+		k2 *= C1;
+		return k2;
+	}
+
+	private static long fmix64(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	@Override
+	public Integer apply(String key) {
+		return (int) hash128(key.getBytes(StandardCharsets.UTF_8), seed)[0];
+	}
+
+	// 延迟加载
+	private static class SyncAvoid {
+		private static final HashFunction INSTANCE = new Murmur3HashFunction();
+	}
+
+}
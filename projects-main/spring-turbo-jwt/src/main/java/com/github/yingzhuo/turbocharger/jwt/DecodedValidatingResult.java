@@ -0,0 +1,44 @@
+package com.github.yingzhuo.turbocharger.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+public final class DecodedValidatingResult {
+
+	private final ValidatingResult result;
+
+	@Nullable
+	private final DecodedJWT decodedJwt;
+
+	private DecodedValidatingResult(ValidatingResult result, @Nullable DecodedJWT decodedJwt) {
+		this.result = result;
+		this.decodedJwt = decodedJwt;
+	}
+
+	public static DecodedValidatingResult ok(DecodedJWT decodedJwt) {
+		Assert.notNull(decodedJwt, "decodedJwt is required");
+		return new DecodedValidatingResult(ValidatingResult.OK, decodedJwt);
+	}
+
+	public static DecodedValidatingResult failure(ValidatingResult result) {
+		Assert.notNull(result, "result is required");
+		Assert.isTrue(result != ValidatingResult.OK, "result should not be OK");
+		return new DecodedValidatingResult(result, null);
+	}
+
+	public ValidatingResult getResult() {
+		return result;
+	}
+
+	// 仅在校验通过时不为 null
+	@Nullable
+	public DecodedJWT getDecodedJwt() {
+		return decodedJwt;
+	}
+
+	public boolean isOk() {
+		return result == ValidatingResult.OK;
+	}
+
+}
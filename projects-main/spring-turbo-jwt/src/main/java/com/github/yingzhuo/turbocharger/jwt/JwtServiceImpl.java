@@ -1,15 +1,25 @@
 package com.github.yingzhuo.turbocharger.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.*;
 import org.jspecify.annotations.Nullable;
 import org.springframework.util.Assert;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class JwtServiceImpl implements JwtService {
 
+	/*
+	 * JWTVerifier 是不可变且线程安全的，只在创建时与 rebuildVerifier() 时构建。
+	 * 校验时的当前时间由 JWTVerifier 每次读取，缓存不影响过期检查。
+	 */
+
 	private final Algorithm algorithm;
 	private final @Nullable VerificationCustomizer verificationCustomizer;
+	private final List<VerificationKeyListener> verificationKeyListeners = new CopyOnWriteArrayList<>();
+	private volatile JWTVerifier verifier;
 
 	public JwtServiceImpl(Algorithm algorithm) {
 		this(algorithm, null);
@@ -19,6 +29,7 @@ public JwtServiceImpl(Algorithm algorithm, @Nullable VerificationCustomizer veri
 		Assert.notNull(algorithm, "algorithm must not be null");
 		this.algorithm = algorithm;
 		this.verificationCustomizer = verificationCustomizer;
+		this.verifier = buildVerifier();
 	}
 
 	@Override
@@ -31,22 +42,35 @@ public String createToken(JwtData data) {
 
 	@Override
 	public ValidatingResult validateToken(String token) {
-		try {
-			var verification = JWT.require(algorithm);
-			if (verificationCustomizer != null) {
-				verificationCustomizer.customize(verification);
-			}
-			verification.build().verify(token);
-		} catch (IncorrectClaimException | MissingClaimException ex) {
-			return ValidatingResult.INVALID_CLAIM;
-		} catch (TokenExpiredException ex) {
-			return ValidatingResult.INVALID_TIME;
-		} catch (SignatureVerificationException ex) {
-			return ValidatingResult.INVALID_SIGNATURE;
-		} catch (JWTVerificationException exception) {
-			return ValidatingResult.INVALID_JWT_FORMAT;
+		return validateAndDecode(token).getResult();
+	}
+
+	@Override
+	public DecodedValidatingResult validateAndDecode(String token) {
+		// 明显不是 JWT 的令牌不必交给 JWTVerifier，省去构造异常的开销
+		if (!JwtVerifications.hasJwtFormat(token)) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_JWT_FORMAT);
+		}
+		return JwtVerifications.verify(verifier, token);
+	}
+
+	// VerificationCustomizer 的配置发生变化时调用
+	public void rebuildVerifier() {
+		this.verifier = buildVerifier();
+		verificationKeyListeners.forEach(VerificationKeyListener::onVerificationKeysChanged);
+	}
+
+	public void addVerificationKeyListener(VerificationKeyListener listener) {
+		Assert.notNull(listener, "listener is required");
+		verificationKeyListeners.add(listener);
+	}
+
+	private JWTVerifier buildVerifier() {
+		var verification = JWT.require(algorithm);
+		if (verificationCustomizer != null) {
+			verificationCustomizer.customize(verification);
 		}
-		return ValidatingResult.OK;
+		return verification.build();
 	}
 
 }
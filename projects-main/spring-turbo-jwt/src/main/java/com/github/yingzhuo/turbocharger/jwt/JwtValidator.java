@@ -1,8 +1,19 @@
 package com.github.yingzhuo.turbocharger.jwt;
 
+import com.auth0.jwt.JWT;
+
 @FunctionalInterface
 public interface JwtValidator {
 
 	public ValidatingResult validateToken(String token);
 
+	// 校验并返回解码后的令牌，校验失败时不抛出异常
+	public default DecodedValidatingResult validateAndDecode(String token) {
+		var result = validateToken(token);
+		if (result != ValidatingResult.OK) {
+			return DecodedValidatingResult.failure(result);
+		}
+		return DecodedValidatingResult.ok(JWT.decode(token));
+	}
+
 }
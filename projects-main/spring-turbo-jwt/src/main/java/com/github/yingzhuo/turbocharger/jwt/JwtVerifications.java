@@ -0,0 +1,42 @@
+package com.github.yingzhuo.turbocharger.jwt;
+
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.exceptions.*;
+import org.jspecify.annotations.Nullable;
+
+final class JwtVerifications {
+
+	private JwtVerifications() {
+		super();
+	}
+
+	static DecodedValidatingResult verify(JWTVerifier verifier, String token) {
+		try {
+			return DecodedValidatingResult.ok(verifier.verify(token));
+		} catch (IncorrectClaimException | MissingClaimException ex) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_CLAIM);
+		} catch (TokenExpiredException ex) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_TIME);
+		} catch (SignatureVerificationException ex) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_SIGNATURE);
+		} catch (JWTVerificationException exception) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_JWT_FORMAT);
+		}
+	}
+
+	// header.payload.signature，恰好包含两个 '.'
+	static boolean hasJwtFormat(@Nullable String token) {
+		if (token == null || token.isEmpty()) {
+			return false;
+		}
+
+		var dots = 0;
+		for (int i = 0; i < token.length(); i++) {
+			if (token.charAt(i) == '.' && ++dots > 2) {
+				return false;
+			}
+		}
+		return dots == 2;
+	}
+
+}
@@ -0,0 +1,231 @@
+package com.github.yingzhuo.turbocharger.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class KeyRotatingJwtService implements JwtService {
+
+	/*
+	 * 持有多个密钥，以 kid 为索引。
+	 *
+	 * 1. 签发令牌时由 SigningKeySelector 选出一个密钥签名，并把它的 kid 写入 header。
+	 * 2. 校验令牌时只解码 header 并流式读取 kid，再以一次 Map 查找取得对应的 JWTVerifier。
+	 *    没有 kid 的令牌 (轮换之前签发的) 使用当前签名的密钥校验。
+	 * 3. 所有密钥与 JWTVerifier 保存在一个不可变的快照中，更换密钥时整体替换快照，不影响正在进行的校验。
+	 *    轮换时先加入新密钥并保留旧密钥，等旧令牌全部过期后再移除旧密钥。
+	 * 4. 替换或移除已有的密钥时通知 VerificationKeyListener，只加入新的 kid 不影响已校验过的令牌，不通知。
+	 * 5. 替换某个 kid 的密钥时可以指定宽限期，宽限期内新密钥验签失败的令牌再用旧密钥校验一次，
+	 *    用同一个 kid 签发的旧令牌不会因为密钥被替换而立即失效。
+	 */
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final @Nullable VerificationCustomizer verificationCustomizer;
+	private final SigningKeySelector signingKeySelector;
+	private final List<VerificationKeyListener> verificationKeyListeners = new CopyOnWriteArrayList<>();
+	private volatile Keys keys;
+
+	public KeyRotatingJwtService(Map<String, Algorithm> algorithms) {
+		this(algorithms, null, SigningKeySelector.latest());
+	}
+
+	public KeyRotatingJwtService(Map<String, Algorithm> algorithms, @Nullable VerificationCustomizer verificationCustomizer) {
+		this(algorithms, verificationCustomizer, SigningKeySelector.latest());
+	}
+
+	public KeyRotatingJwtService(Map<String, Algorithm> algorithms, @Nullable VerificationCustomizer verificationCustomizer, SigningKeySelector signingKeySelector) {
+		Assert.notNull(signingKeySelector, "signingKeySelector is required");
+		this.verificationCustomizer = verificationCustomizer;
+		this.signingKeySelector = signingKeySelector;
+		this.keys = buildKeys(algorithms, Map.of());
+	}
+
+	@Override
+	public String createToken(JwtData data) {
+		var snapshot = keys;
+		return JWT.create()
+			.withHeader(data.getHeaderMap())
+			.withKeyId(snapshot.signingKeyId())
+			.withPayload(data.getPayloadMap())
+			.sign(snapshot.algorithms().get(snapshot.signingKeyId()));
+	}
+
+	@Override
+	public ValidatingResult validateToken(String token) {
+		return validateAndDecode(token).getResult();
+	}
+
+	@Override
+	public DecodedValidatingResult validateAndDecode(String token) {
+		if (!JwtVerifications.hasJwtFormat(token)) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_JWT_FORMAT);
+		}
+
+		var keyId = readKeyId(token);
+		if (keyId == null) {
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_JWT_FORMAT);
+		}
+
+		var snapshot = keys;
+		var resolvedKeyId = keyId.isEmpty() ? snapshot.signingKeyId() : keyId;
+		var verifier = snapshot.verifiers().get(resolvedKeyId);
+		if (verifier == null) {
+			// 未知的或已移除的密钥
+			return DecodedValidatingResult.failure(ValidatingResult.INVALID_SIGNATURE);
+		}
+
+		var result = JwtVerifications.verify(verifier, token);
+		if (result.getResult() == ValidatingResult.INVALID_SIGNATURE) {
+			// 可能是被替换之前的密钥签发的
+			var previousKey = snapshot.previousKeys().get(resolvedKeyId);
+			if (previousKey != null && !previousKey.isExpired(System.currentTimeMillis())) {
+				return JwtVerifications.verify(previousKey.verifier(), token);
+			}
+		}
+		return result;
+	}
+
+	// 整体替换所有密钥
+	public synchronized void setKeys(Map<String, Algorithm> algorithms) {
+		this.keys = buildKeys(algorithms, Map.of());
+		fireVerificationKeysChanged();
+	}
+
+	public void putKey(String keyId, Algorithm algorithm) {
+		putKey(keyId, algorithm, Duration.ZERO);
+	}
+
+	// 替换已有的密钥时，旧密钥在宽限期内仍可用于校验
+	public synchronized void putKey(String keyId, Algorithm algorithm, Duration gracePeriod) {
+		Assert.hasText(keyId, "keyId is required");
+		Assert.notNull(algorithm, "algorithm is required");
+		Assert.notNull(gracePeriod, "gracePeriod is required");
+
+		var snapshot = keys;
+		var algorithms = new LinkedHashMap<>(snapshot.algorithms());
+		// 替换时保留 kid 原有的位置，不改变 SigningKeySelector.latest() 选出的密钥
+		var replaced = algorithms.put(keyId, algorithm) != null;
+
+		var previousKeys = new HashMap<>(snapshot.previousKeys());
+		if (replaced && gracePeriod.toMillis() > 0L) {
+			previousKeys.put(keyId, new PreviousKey(snapshot.verifiers().get(keyId), System.currentTimeMillis() + gracePeriod.toMillis()));
+		} else {
+			previousKeys.remove(keyId);
+		}
+		this.keys = buildKeys(algorithms, previousKeys);
+
+		if (replaced) {
+			fireVerificationKeysChanged();
+		}
+	}
+
+	public synchronized void removeKey(String keyId) {
+		var algorithms = new LinkedHashMap<>(keys.algorithms());
+		if (algorithms.remove(keyId) != null) {
+			this.keys = buildKeys(algorithms, keys.previousKeys());
+			fireVerificationKeysChanged();
+		}
+	}
+
+	public void addVerificationKeyListener(VerificationKeyListener listener) {
+		Assert.notNull(listener, "listener is required");
+		verificationKeyListeners.add(listener);
+	}
+
+	public List<String> getKeyIds() {
+		return List.copyOf(keys.algorithms().keySet());
+	}
+
+	public String getSigningKeyId() {
+		return keys.signingKeyId();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private void fireVerificationKeysChanged() {
+		verificationKeyListeners.forEach(VerificationKeyListener::onVerificationKeysChanged);
+	}
+
+	private Keys buildKeys(Map<String, Algorithm> algorithms, Map<String, PreviousKey> previousKeys) {
+		Assert.notEmpty(algorithms, "algorithms is required");
+
+		var algorithmMap = new LinkedHashMap<String, Algorithm>();
+		var verifierMap = new HashMap<String, JWTVerifier>();
+		algorithms.forEach((keyId, algorithm) -> {
+			Assert.hasText(keyId, "keyId is required");
+			Assert.notNull(algorithm, "algorithm is required");
+
+			var verification = JWT.require(algorithm);
+			if (verificationCustomizer != null) {
+				verificationCustomizer.customize(verification);
+			}
+			algorithmMap.put(keyId, algorithm);
+			verifierMap.put(keyId, verification.build());
+		});
+
+		var signingKeyId = signingKeySelector.select(List.copyOf(algorithmMap.keySet()));
+		Assert.state(algorithmMap.containsKey(signingKeyId), "signing key not found: " + signingKeyId);
+
+		// 丢弃已过宽限期的与 kid 已被移除的旧密钥
+		var now = System.currentTimeMillis();
+		var previousKeyMap = new HashMap<String, PreviousKey>();
+		previousKeys.forEach((keyId, previousKey) -> {
+			if (algorithmMap.containsKey(keyId) && !previousKey.isExpired(now)) {
+				previousKeyMap.put(keyId, previousKey);
+			}
+		});
+
+		return new Keys(
+			Collections.unmodifiableMap(algorithmMap),
+			Map.copyOf(verifierMap),
+			Map.copyOf(previousKeyMap),
+			signingKeyId
+		);
+	}
+
+	// 只解码 header 读取 kid，没有 kid 时返回空字符串，header 格式错误时返回 null
+	@Nullable
+	private String readKeyId(String token) {
+		try {
+			var header = Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')));
+
+			try (var parser = JSON_FACTORY.createParser(header)) {
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					return null;
+				}
+
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					var name = parser.currentName();
+					var valueToken = parser.nextToken();
+					if (JwtConstants.HEADER_KEY_ID.equals(name)) {
+						return valueToken == JsonToken.VALUE_STRING ? parser.getText() : null;
+					}
+					parser.skipChildren();
+				}
+				return "";
+			}
+		} catch (IllegalArgumentException | IOException e) {
+			return null;
+		}
+	}
+
+	private record Keys(Map<String, Algorithm> algorithms, Map<String, JWTVerifier> verifiers, Map<String, PreviousKey> previousKeys, String signingKeyId) {
+	}
+
+	private record PreviousKey(JWTVerifier verifier, long deadline) {
+		private boolean isExpired(long now) {
+			return deadline <= now;
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+package com.github.yingzhuo.turbocharger.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.github.yingzhuo.turbocharger.jwt.algorithm.GenericAlgorithm;
+import com.github.yingzhuo.turbocharger.secret.KeyBundleFactories;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class PemKeyReloader implements AutoCloseable {
+
+	/*
+	 * 从 PEM 文件加载 KeyRotatingJwtService 的密钥，并周期检查文件的修改时间，有变化时重新加载。
+	 *
+	 * 1. 密钥来源可以是固定的 kid -> PEM 资源，也可以是一个目录。
+	 *    目录中每个 "*.pem" 文件是一个密钥，kid 为去掉扩展名的文件名。新增的文件作为新的 kid 加入，删除的文件对应的 kid 被退役。
+	 * 2. 替换某个 kid 的 PEM 文件时，旧密钥在宽限期内仍可用于校验；退役的 kid 在宽限期结束后才移除，已签发的令牌可以继续使用。
+	 * 3. 目录中的文件按文件名排序后加入，重启或 reload() 后文件名最大的 kid 成为 SigningKeySelector.latest() 选出的签名密钥；
+	 *    运行期间替换已有 kid 的文件不改变其顺序。
+	 * 4. 逐个 kid 加载，某个文件加载失败 (比如正在写入) 时记录日志并保留其原有的密钥，下个周期重试，不影响其他 kid。
+	 */
+
+	private static final Logger log = LoggerFactory.getLogger(PemKeyReloader.class);
+
+	private static final String PEM_FILE_SUFFIX = ".pem";
+
+	private final KeyRotatingJwtService jwtService;
+	private final @Nullable Map<String, Resource> pemResources;
+	private final @Nullable Path pemDirectory;
+	private final @Nullable String password;
+	private final Duration gracePeriod;
+	private final Map<String, Long> lastModified = new LinkedHashMap<>();
+	private final Map<String, Long> retiringDeadlines = new LinkedHashMap<>();
+	private final ScheduledExecutorService scheduler;
+
+	public PemKeyReloader(KeyRotatingJwtService jwtService, Map<String, Resource> pemResources, @Nullable String password, Duration checkInterval) {
+		this(jwtService, pemResources, password, checkInterval, Duration.ZERO);
+	}
+
+	public PemKeyReloader(KeyRotatingJwtService jwtService, Map<String, Resource> pemResources, @Nullable String password, Duration checkInterval, Duration gracePeriod) {
+		this(jwtService, copyOf(pemResources), null, password, checkInterval, gracePeriod);
+	}
+
+	public PemKeyReloader(KeyRotatingJwtService jwtService, Path pemDirectory, @Nullable String password, Duration checkInterval, Duration gracePeriod) {
+		this(jwtService, null, pemDirectory, password, checkInterval, gracePeriod);
+	}
+
+	private PemKeyReloader(KeyRotatingJwtService jwtService, @Nullable Map<String, Resource> pemResources, @Nullable Path pemDirectory, @Nullable String password, Duration checkInterval, Duration gracePeriod) {
+		Assert.notNull(jwtService, "jwtService is required");
+		Assert.isTrue(pemDirectory == null || Files.isDirectory(pemDirectory), "pemDirectory is not a directory");
+		Assert.isTrue(pemResources != null || pemDirectory != null, "pemResources or pemDirectory is required");
+		Assert.notNull(checkInterval, "checkInterval is required");
+		Assert.isTrue(checkInterval.toMillis() > 0, "checkInterval should >= 1ms");
+		Assert.notNull(gracePeriod, "gracePeriod is required");
+		Assert.isTrue(!gracePeriod.isNegative(), "gracePeriod should >= 0");
+
+		this.jwtService = jwtService;
+		this.pemResources = pemResources;
+		this.pemDirectory = pemDirectory;
+		this.password = password;
+		this.gracePeriod = gracePeriod;
+
+		reload();
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			var thread = new Thread(runnable, "jwt-key-reloader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::reloadIfModified, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	// 立即整体替换所有密钥，不保留旧密钥，任何一个文件加载失败都抛出异常
+	public synchronized void reload() {
+		var algorithms = new LinkedHashMap<String, Algorithm>();
+		var modified = new LinkedHashMap<String, Long>();
+
+		try {
+			for (var entry : listPemResources().entrySet()) {
+				modified.put(entry.getKey(), lastModifiedOf(entry.getValue()));
+				algorithms.put(entry.getKey(), loadAlgorithm(entry.getValue()));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		jwtService.setKeys(algorithms);
+		lastModified.clear();
+		lastModified.putAll(modified);
+		retiringDeadlines.clear();
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private synchronized void reloadIfModified() {
+		Map<String, Resource> resources;
+		try {
+			resources = listPemResources();
+		} catch (IOException | RuntimeException e) {
+			// 无法列出文件时不能据此退役任何 kid
+			log.warn("cannot list pem files, keys unchanged", e);
+			return;
+		}
+
+		var now = System.currentTimeMillis();
+
+		// 新增的与修改过的
+		resources.forEach((keyId, resource) -> {
+			try {
+				var modified = lastModifiedOf(resource);
+				var previous = lastModified.get(keyId);
+				if (previous != null && previous == modified && !retiringDeadlines.containsKey(keyId)) {
+					return;
+				}
+
+				jwtService.putKey(keyId, loadAlgorithm(resource), gracePeriod);
+				lastModified.put(keyId, modified);
+				retiringDeadlines.remove(keyId);
+				log.info("jwt key loaded, kid: {}", keyId);
+			} catch (IOException | RuntimeException e) {
+				log.warn("failed to reload jwt key, keep the current one, kid: {}", keyId, e);
+			}
+		});
+
+		// 已删除的，宽限期结束后移除
+		for (var keyId : new ArrayList<>(lastModified.keySet())) {
+			if (resources.containsKey(keyId)) {
+				continue;
+			}
+
+			var deadline = retiringDeadlines.computeIfAbsent(keyId, k -> {
+				log.info("jwt key retiring, kid: {}", k);
+				return now + gracePeriod.toMillis();
+			});
+
+			if (deadline <= now) {
+				try {
+					jwtService.removeKey(keyId);
+					lastModified.remove(keyId);
+					retiringDeadlines.remove(keyId);
+					log.info("jwt key removed, kid: {}", keyId);
+				} catch (RuntimeException e) {
+					// 比如这是最后一个密钥
+					log.warn("failed to remove jwt key, kid: {}", keyId, e);
+				}
+			}
+		}
+	}
+
+	// 保持顺序，SigningKeySelector 按加入的顺序选择签名的密钥
+	private static Map<String, Resource> copyOf(Map<String, Resource> pemResources) {
+		Assert.notEmpty(pemResources, "pemResources is required");
+		return new LinkedHashMap<>(pemResources);
+	}
+
+	private Map<String, Resource> listPemResources() throws IOException {
+		if (pemResources != null) {
+			return pemResources;
+		}
+
+		Assert.state(pemDirectory != null, "pemDirectory is null");
+		var resources = new LinkedHashMap<String, Resource>();
+		try (var files = Files.list(pemDirectory)) {
+			files.filter(Files::isRegularFile)
+				.filter(file -> file.getFileName().toString().endsWith(PEM_FILE_SUFFIX))
+				.sorted()
+				.forEach(file -> {
+					var fileName = file.getFileName().toString();
+					resources.put(fileName.substring(0, fileName.length() - PEM_FILE_SUFFIX.length()), new FileSystemResource(file));
+				});
+		}
+		return resources;
+	}
+
+	private Algorithm loadAlgorithm(Resource resource) throws IOException {
+		var keyBundle = KeyBundleFactories.loadFromPemContent(resource.getContentAsString(StandardCharsets.UTF_8), password);
+		return new GenericAlgorithm(keyBundle);
+	}
+
+	private long lastModifiedOf(Resource resource) throws IOException {
+		// classpath 中 jar 内的资源等无法取得修改时间，视为不变
+		return resource.isFile() ? resource.lastModified() : 0L;
+	}
+
+}
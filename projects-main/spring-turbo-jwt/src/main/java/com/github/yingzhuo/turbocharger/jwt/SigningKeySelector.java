@@ -0,0 +1,23 @@
+package com.github.yingzhuo.turbocharger.jwt;
+
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface SigningKeySelector {
+
+	// 默认使用最后加入的密钥签名
+	public static SigningKeySelector latest() {
+		return keyIds -> keyIds.get(keyIds.size() - 1);
+	}
+
+	public static SigningKeySelector fixed(String keyId) {
+		Assert.hasText(keyId, "keyId is required");
+		return keyIds -> keyId;
+	}
+
+	// keyIds 按加入的顺序排列，并且不为空
+	public String select(List<String> keyIds);
+
+}
@@ -0,0 +1,9 @@
+package com.github.yingzhuo.turbocharger.jwt;
+
+@FunctionalInterface
+public interface VerificationKeyListener {
+
+	// 校验用的密钥或 JWTVerifier 发生变化，之前的校验结果可能不再成立 (比如清空已校验令牌的缓存)
+	public void onVerificationKeysChanged();
+
+}
@@ -1,6 +1,7 @@
 package com.github.yingzhuo.turbocharger.jwt.algorithm;
 
 import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.github.yingzhuo.turbocharger.secret.KeyBundle;
 import org.jspecify.annotations.Nullable;
 import org.springframework.boot.ssl.pem.PemContent;
 
@@ -44,6 +45,14 @@ public GenericAlgorithm(String pemContent, @Nullable String password) {
 		this.privateKey = pc.getPrivateKey(password);
 	}
 
+	public GenericAlgorithm(KeyBundle keyBundle) {
+		super("<no name>", "<no description>");
+		this.certificate = keyBundle.getCertificate();
+		this.sigAlgName = this.certificate.getSigAlgName();
+		this.publicKey = this.certificate.getPublicKey();
+		this.privateKey = keyBundle.getPrivateKey();
+	}
+
 	@Override
 	public String getName() {
 		var newName = ALG_NAME_MAPPING.get(sigAlgName);
@@ -0,0 +1,29 @@
+package com.github.yingzhuo.turbocharger.redis.actuate;
+
+import com.github.yingzhuo.turbocharger.redis.lock.SlowLockHolders;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Endpoint(id = "distributedlocks")
+public class DistributedLocksEndpoint {
+
+	private final SlowLockHolders slowLockHolders;
+
+	public DistributedLocksEndpoint(SlowLockHolders slowLockHolders) {
+		Assert.notNull(slowLockHolders, "slowLockHolders is required");
+		this.slowLockHolders = slowLockHolders;
+	}
+
+	@ReadOperation
+	public Map<String, Object> locks() {
+		var map = new LinkedHashMap<String, Object>();
+		map.put("threshold", slowLockHolders.getThreshold());
+		map.put("slowestHolders", slowLockHolders.getSlowestHolders());
+		return map;
+	}
+
+}
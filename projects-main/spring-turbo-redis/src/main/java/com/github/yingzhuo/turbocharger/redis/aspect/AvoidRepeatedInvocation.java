@@ -15,4 +15,7 @@
 
 	public TimeUnit leaseTimeUnit() default TimeUnit.SECONDS;
 
+	// 为true时，租约内的重复调用不抛出异常，而是返回首次调用的结果 (返回值需要能被序列化)
+	public boolean replayResult() default false;
+
 }
@@ -3,33 +3,84 @@
 import com.github.yingzhuo.turbocharger.aspect.AspectSpELTemplate;
 import com.github.yingzhuo.turbocharger.core.AspectUtils;
 import com.github.yingzhuo.turbocharger.exception.RuntimeExceptionSupplier;
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.concurrent.UncheckedInterruptedException;
+import com.github.yingzhuo.turbocharger.util.id.UUIDs;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.util.Assert;
 
 import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Aspect
 public class AvoidRepeatedInvocationAdvice implements Ordered {
 
+	/*
+	 * replayResult 模式:
+	 * 首次调用执行期间，键的值为本次调用独有的执行中标记。执行成功后把序列化的返回值写入该键并发布完成通知，执行失败则删除该键并发布完成通知。
+	 * 写入与删除都由脚本完成，只在键的值仍是本次调用的标记时生效，超出租约的调用不会覆盖其他调用的租约。
+	 * 重复调用读取该键: 已有结果时直接返回，仍在执行时等待完成通知 (最多等待一个租约)，键不存在时视为首次调用失败，抛出异常。
+	 * 返回值无法序列化时，首次调用仍然正常返回，该键按失败处理 (删除)，重复调用抛出异常而不是等待到租约结束。
+	 *
+	 * 返回值默认以 JSON 序列化，不对 redis 中的数据做 Java 反序列化。需要其他格式时请在配置中传入 resultSerializer。
+	 */
+
+	private static final Logger log = LoggerFactory.getLogger(AvoidRepeatedInvocationAdvice.class);
+
+	private static final String RUNNING_PREFIX = "running:";
+	private static final String RESULT_PREFIX = "result:";
+	private static final long SUBSCRIBED_POLL_INTERVAL_IN_NANOS = TimeUnit.SECONDS.toNanos(1L);
+	private static final long UNSUBSCRIBED_POLL_INTERVAL_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
 	private final RedisOperations<String, String> redisOperations;
 	private final RuntimeExceptionSupplier exceptionSupplier;
 	private final int order;
+	private final RedisSerializer<Object> resultSerializer;
+
+	@Nullable
+	private final LocalInvocationGuard localGuard;
 
 	public AvoidRepeatedInvocationAdvice(RedisOperations<String, String> redisOperations, RuntimeExceptionSupplier exceptionSupplier) {
 		this(redisOperations, exceptionSupplier, HIGHEST_PRECEDENCE);
 	}
 
 	public AvoidRepeatedInvocationAdvice(RedisOperations<String, String> redisOperations, RuntimeExceptionSupplier exceptionSupplier, int order) {
+		this(redisOperations, exceptionSupplier, order, false);
+	}
+
+	public AvoidRepeatedInvocationAdvice(RedisOperations<String, String> redisOperations, RuntimeExceptionSupplier exceptionSupplier, int order, boolean localGuardEnabled) {
+		this(redisOperations, exceptionSupplier, order, localGuardEnabled, RedisSerializer.json());
+	}
+
+	public AvoidRepeatedInvocationAdvice(
+		RedisOperations<String, String> redisOperations,
+		RuntimeExceptionSupplier exceptionSupplier,
+		int order,
+		boolean localGuardEnabled,
+		RedisSerializer<Object> resultSerializer) {
+
 		Assert.notNull(redisOperations, "redisOperations is required");
 		Assert.notNull(exceptionSupplier, "exceptionSupplier is required");
+		Assert.notNull(resultSerializer, "resultSerializer is required");
 
 		this.redisOperations = redisOperations;
 		this.exceptionSupplier = exceptionSupplier;
 		this.order = order;
+		this.resultSerializer = resultSerializer;
+		this.localGuard = localGuardEnabled ? new LocalInvocationGuard() : null;
 	}
 
 	@Around("@annotation(com.github.yingzhuo.turbocharger.redis.aspect.AvoidRepeatedInvocation)")
@@ -49,16 +100,127 @@ public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
 			.getValue();
 
 		var duration = Duration.of(annotation.leaseTime(), annotation.leaseTimeUnit().toChronoUnit());
-		var success = redisOperations.opsForValue()
-			.setIfAbsent(redisKey, "1", duration);
+
+		// 重复调用需要读取结果，不能在本地直接拒绝
+		if (annotation.replayResult()) {
+			return aroundReplaying(joinPoint, redisKey, duration);
+		}
+
+		// 本节点租约内已放行过，直接拒绝
+		if (localGuard != null && !localGuard.tryAcquire(redisKey, duration.toNanos())) {
+			throw exceptionSupplier.get();
+		}
+
+		Boolean success;
+		try {
+			success = redisOperations.opsForValue()
+				.setIfAbsent(redisKey, "1", duration);
+		} catch (RuntimeException e) {
+			releaseLocal(redisKey);
+			throw e;
+		}
 
 		if (Boolean.TRUE.equals(success)) {
 			return joinPoint.proceed();
 		} else {
+			// 由其他节点放行，它的租约剩余时间未知，本地不做记录
+			releaseLocal(redisKey);
 			throw exceptionSupplier.get();
 		}
 	}
 
+	@Nullable
+	private Object aroundReplaying(ProceedingJoinPoint joinPoint, String redisKey, Duration duration) throws Throwable {
+		var token = RUNNING_PREFIX + UUIDs.classic32();
+		var success = redisOperations.opsForValue()
+			.setIfAbsent(redisKey, token, duration);
+
+		if (!Boolean.TRUE.equals(success)) {
+			return awaitResult(redisKey, duration.toNanos());
+		}
+
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		} catch (Throwable e) {
+			// 清理失败不能掩盖业务异常
+			try {
+				complete(redisKey, token, "", duration);
+			} catch (RuntimeException ex) {
+				e.addSuppressed(ex);
+			}
+			throw e;
+		}
+
+		// 业务已经执行成功，之后的任何失败都不能影响本次调用的返回
+		try {
+			var encoded = Base64.getEncoder().encodeToString(Objects.requireNonNullElse(resultSerializer.serialize(result), new byte[0]));
+			complete(redisKey, token, RESULT_PREFIX + encoded, duration);
+		} catch (RuntimeException e) {
+			log.warn("cannot record the result of invocation, key: {}", redisKey, e);
+			try {
+				complete(redisKey, token, "", duration);
+			} catch (RuntimeException ex) {
+				// 只能等待租约到期
+				log.warn("cannot release invocation key: {}", redisKey, ex);
+			}
+		}
+		return result;
+	}
+
+	private void complete(String redisKey, String token, String value, Duration duration) {
+		RedisScriptRegistry.getInstance(redisOperations).execute(
+			InvocationScripts.COMPLETE,
+			List.of(redisKey),
+			token,
+			value,
+			String.valueOf(duration.toMillis()),
+			InvocationCompletionNotifier.CHANNEL
+		);
+	}
+
+	@Nullable
+	private Object awaitResult(String redisKey, long leaseInNanos) {
+		var notifier = InvocationCompletionNotifier.getInstance(redisOperations);
+		var pollInterval = notifier.isSubscribed() ? SUBSCRIBED_POLL_INTERVAL_IN_NANOS : UNSUBSCRIBED_POLL_INTERVAL_IN_NANOS;
+		var deadline = System.nanoTime() + leaseInNanos;
+
+		while (true) {
+			// 先取得信号再读取，避免在两次读取之间错过完成通知
+			var signal = notifier.signalOf(redisKey);
+			try {
+				var value = redisOperations.opsForValue().get(redisKey);
+
+				if (value != null && value.startsWith(RESULT_PREFIX)) {
+					return resultSerializer.deserialize(Base64.getDecoder().decode(value.substring(RESULT_PREFIX.length())));
+				}
+
+				var remaining = deadline - System.nanoTime();
+				if (value == null || remaining <= 0L) {
+					throw exceptionSupplier.get();
+				}
+
+				signal.get(Math.min(remaining, pollInterval), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				// 兜底轮询
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UncheckedInterruptedException(e);
+			} catch (ExecutionException e) {
+				// 信号不会异常完成
+			} finally {
+				// 其他等待者可能仍在使用同一个信号
+				notifier.discard(redisKey, signal);
+			}
+		}
+	}
+
+	private void releaseLocal(String redisKey) {
+		if (localGuard != null) {
+			localGuard.release(redisKey);
+		}
+	}
+
 	@Override
 	public int getOrder() {
 		return this.order;
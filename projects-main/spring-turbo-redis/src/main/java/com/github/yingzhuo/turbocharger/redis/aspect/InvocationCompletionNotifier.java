@@ -0,0 +1,89 @@
+package com.github.yingzhuo.turbocharger.redis.aspect;
+
+import com.github.yingzhuo.turbocharger.redis.util.RedisSubscription;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class InvocationCompletionNotifier implements MessageListener {
+
+	/*
+	 * 首次调用结束 (无论成功或失败) 后把键发布到此频道，本类按键唤醒本节点上等待结果的线程。
+	 * 如果无法取得连接工厂，则不订阅，等待的线程只能依靠兜底的轮询。
+	 * 同一个键的等待者共享一个信号，信号记录等待者的个数，最后一个等待者离开时才移除。
+	 */
+
+	static final String CHANNEL = "turbocharger:invocation:completed";
+
+	private static final Map<RedisOperations<String, String>, InvocationCompletionNotifier> INSTANCES = new ConcurrentHashMap<>();
+
+	private final Map<String, Signal> signals = new ConcurrentHashMap<>();
+	private final RedisSerializer<?> valueSerializer;
+	private final RedisSubscription subscription;
+
+	@SuppressWarnings("unchecked")
+	private InvocationCompletionNotifier(RedisOperations<String, String> redisOperations) {
+		this.valueSerializer = redisOperations.getValueSerializer();
+		this.subscription = RedisSubscription.subscribe(redisOperations, this, new ChannelTopic(CHANNEL), (RedisSerializer<String>) valueSerializer);
+	}
+
+	static InvocationCompletionNotifier getInstance(RedisOperations<String, String> redisOperations) {
+		var notifier = INSTANCES.get(redisOperations);
+		if (notifier != null && !notifier.subscription.isClosed()) {
+			return notifier;
+		}
+		// 订阅已被关闭 (比如应用上下文重启) 时重新创建
+		return INSTANCES.compute(redisOperations, (k, v) -> v != null && !v.subscription.isClosed() ? v : new InvocationCompletionNotifier(k));
+	}
+
+	// 每次调用都要有对应的 discard(String, CompletableFuture)
+	CompletableFuture<Void> signalOf(String key) {
+		return signals.compute(key, (k, signal) -> {
+			if (signal == null) {
+				signal = new Signal();
+			}
+			signal.waiters++;
+			return signal;
+		}).future;
+	}
+
+	void discard(String key, CompletableFuture<Void> future) {
+		signals.computeIfPresent(key, (k, signal) -> {
+			if (signal.future != future) {
+				return signal;
+			}
+			return --signal.waiters <= 0 ? null : signal;
+		});
+	}
+
+	boolean isSubscribed() {
+		return subscription.isSubscribed();
+	}
+
+	@Override
+	public void onMessage(Message message, byte @Nullable [] pattern) {
+		var key = valueSerializer.deserialize(message.getBody());
+		if (key == null) {
+			return;
+		}
+
+		var signal = signals.remove(key.toString());
+		if (signal != null) {
+			signal.future.complete(null);
+		}
+	}
+
+	// waiters 只在 signals 的 compute 中读写
+	private static final class Signal {
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private int waiters;
+	}
+
+}
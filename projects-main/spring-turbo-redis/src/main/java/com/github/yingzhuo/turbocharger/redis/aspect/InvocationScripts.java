@@ -0,0 +1,23 @@
+package com.github.yingzhuo.turbocharger.redis.aspect;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+public final class InvocationScripts {
+
+	public static final RedisScript<Boolean> COMPLETE =
+		RedisScript.of(new ClassPathResource("META-INF/Invocation#complete.lua"), Boolean.class);
+
+	private InvocationScripts() {
+		super();
+	}
+
+	public static List<RedisScript<?>> all() {
+		return List.of(
+			COMPLETE
+		);
+	}
+
+}
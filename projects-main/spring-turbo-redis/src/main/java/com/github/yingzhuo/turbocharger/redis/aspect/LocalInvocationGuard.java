@@ -0,0 +1,55 @@
+package com.github.yingzhuo.turbocharger.redis.aspect;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class LocalInvocationGuard {
+
+	/*
+	 * 进程内的第一道防线: 记录本节点已放行的键及其租约到期时间。
+	 * 租约内的重复调用直接拒绝，不访问 redis，只有首次出现的键才需要 SETNX。
+	 * 过期的键在每若干次调用后顺带清理一次。
+	 */
+
+	private static final int SWEEP_INTERVAL = 1024;
+
+	private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+	private final AtomicInteger operationCount = new AtomicInteger();
+
+	boolean tryAcquire(String key, long leaseInNanos) {
+		sweepIfNecessary();
+
+		var now = System.nanoTime();
+		var deadline = now + leaseInNanos;
+		var acquired = new boolean[1];
+
+		deadlines.compute(key, (k, current) -> {
+			if (current != null && current - now > 0L) {
+				return current;
+			}
+			acquired[0] = true;
+			return deadline;
+		});
+
+		return acquired[0];
+	}
+
+	void release(String key) {
+		deadlines.remove(key);
+	}
+
+	int size() {
+		return deadlines.size();
+	}
+
+	private void sweepIfNecessary() {
+		if (operationCount.incrementAndGet() % SWEEP_INTERVAL != 0) {
+			return;
+		}
+
+		var now = System.nanoTime();
+		deadlines.values().removeIf(deadline -> deadline - now <= 0L);
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.github.yingzhuo.turbocharger.redis.aspect;
+
+import com.github.yingzhuo.turbocharger.redis.ratelimit.RateLimitAlgorithm;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimited {
+
+	public String value();
+
+	public long permits();
+
+	public long period() default 1L;
+
+	public TimeUnit periodUnit() default TimeUnit.SECONDS;
+
+	public RateLimitAlgorithm algorithm() default RateLimitAlgorithm.TOKEN_BUCKET;
+
+	// 大于1时本地一次租借多个许可，减少访问 redis 的次数，但会降低限流的精度
+	public int prefetch() default 1;
+
+}
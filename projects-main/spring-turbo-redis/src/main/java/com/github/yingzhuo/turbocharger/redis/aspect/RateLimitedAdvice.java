@@ -0,0 +1,77 @@
+package com.github.yingzhuo.turbocharger.redis.aspect;
+
+import com.github.yingzhuo.turbocharger.aspect.AspectSpELTemplate;
+import com.github.yingzhuo.turbocharger.core.AspectUtils;
+import com.github.yingzhuo.turbocharger.exception.RuntimeExceptionSupplier;
+import com.github.yingzhuo.turbocharger.redis.ratelimit.DistributedRateLimiter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+public class RateLimitedAdvice implements Ordered {
+
+	private final RedisOperations<String, String> redisOperations;
+	private final RuntimeExceptionSupplier exceptionSupplier;
+	private final int order;
+
+	// 相同配置的注解共享一个限流器，本地租借的许可保存在限流器中
+	private final Map<RateLimited, DistributedRateLimiter> limiters = new ConcurrentHashMap<>();
+
+	public RateLimitedAdvice(RedisOperations<String, String> redisOperations, RuntimeExceptionSupplier exceptionSupplier) {
+		this(redisOperations, exceptionSupplier, HIGHEST_PRECEDENCE);
+	}
+
+	public RateLimitedAdvice(RedisOperations<String, String> redisOperations, RuntimeExceptionSupplier exceptionSupplier, int order) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.notNull(exceptionSupplier, "exceptionSupplier is required");
+
+		this.redisOperations = redisOperations;
+		this.exceptionSupplier = exceptionSupplier;
+		this.order = order;
+	}
+
+	@Around("@annotation(com.github.yingzhuo.turbocharger.redis.aspect.RateLimited)")
+	public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+		var annotation = AspectUtils.getMethodAnnotation(joinPoint, RateLimited.class);
+
+		if (annotation == null) {
+			annotation = AspectUtils.getObjectTypeAnnotation(joinPoint, RateLimited.class);
+		}
+
+		if (annotation == null) {
+			return joinPoint.proceed();
+		}
+
+		var redisKey = AspectSpELTemplate.newInstance(annotation.value(), joinPoint)
+			.setRootObject(null)
+			.getValue();
+
+		var limiter = limiters.computeIfAbsent(annotation, a -> new DistributedRateLimiter(
+			redisOperations,
+			a.algorithm(),
+			a.permits(),
+			Duration.of(a.period(), a.periodUnit().toChronoUnit()),
+			a.prefetch()
+		));
+
+		if (limiter.tryAcquire(redisKey)) {
+			return joinPoint.proceed();
+		} else {
+			throw exceptionSupplier.get();
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return this.order;
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.github.yingzhuo.turbocharger.redis.autoconfiguration;
+
+import com.github.yingzhuo.turbocharger.redis.actuate.DistributedLocksEndpoint;
+import com.github.yingzhuo.turbocharger.redis.lock.LockInstrumentation;
+import com.github.yingzhuo.turbocharger.redis.lock.LockMetrics;
+import com.github.yingzhuo.turbocharger.redis.lock.MicrometerLockMetrics;
+import com.github.yingzhuo.turbocharger.redis.lock.SlowLockHolders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@AutoConfiguration
+public class LockMetricsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public SlowLockHolders slowLockHolders() {
+		return new SlowLockHolders(100, Duration.ofSeconds(1L));
+	}
+
+	// 所有的 LockMetrics 合并后安装到分布式锁中
+	@Bean
+	public SmartInitializingSingleton lockMetricsInstaller(ObjectProvider<LockMetrics> metrics) {
+		return () -> LockInstrumentation.setMetrics(LockMetrics.composite(metrics.orderedStream().toList()));
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	static class MicrometerConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public MicrometerLockMetrics micrometerLockMetrics(ObjectProvider<MeterRegistry> registry) {
+			return new MicrometerLockMetrics(registry.getIfAvailable(() -> Metrics.globalRegistry));
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+	static class EndpointConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public DistributedLocksEndpoint distributedLocksEndpoint(SlowLockHolders slowLockHolders) {
+			return new DistributedLocksEndpoint(slowLockHolders);
+		}
+	}
+
+}
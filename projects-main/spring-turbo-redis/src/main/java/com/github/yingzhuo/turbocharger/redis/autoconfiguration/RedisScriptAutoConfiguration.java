@@ -0,0 +1,32 @@
+package com.github.yingzhuo.turbocharger.redis.autoconfiguration;
+
+import com.github.yingzhuo.turbocharger.redis.aspect.InvocationScripts;
+import com.github.yingzhuo.turbocharger.redis.bloomfilter.BloomFilterScripts;
+import com.github.yingzhuo.turbocharger.redis.lock.LockScripts;
+import com.github.yingzhuo.turbocharger.redis.ratelimit.RateLimiterScripts;
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptPreloader;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+
+@AutoConfiguration
+@ConditionalOnBean(type = "org.springframework.data.redis.core.StringRedisTemplate")
+public class RedisScriptAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public RedisScriptPreloader redisScriptPreloader(StringRedisTemplate template) {
+		var scripts = new ArrayList<RedisScript<?>>();
+		scripts.addAll(LockScripts.all());
+		scripts.addAll(BloomFilterScripts.all());
+		scripts.addAll(RateLimiterScripts.all());
+		scripts.addAll(InvocationScripts.all());
+		return new RedisScriptPreloader(template, scripts);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.github.yingzhuo.turbocharger.redis.autoconfiguration;
+
+import com.github.yingzhuo.turbocharger.redis.util.RedisSubscription;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration
+public class RedisSubscriptionAutoConfiguration {
+
+	// 应用关闭时停止分布式锁、防重复调用与近端缓存创建的所有订阅
+	@Bean
+	public DisposableBean redisSubscriptionCloser() {
+		return RedisSubscription::closeAll;
+	}
+
+}
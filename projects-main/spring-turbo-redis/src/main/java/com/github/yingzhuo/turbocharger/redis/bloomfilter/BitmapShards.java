@@ -0,0 +1,78 @@
+package com.github.yingzhuo.turbocharger.redis.bloomfilter;
+
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilterUtils;
+import com.github.yingzhuo.turbocharger.util.hash.Murmur3HashFunction;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class BitmapShards {
+
+	/*
+	 * 把一个大位图拆分为多个键，使其分散到集群的不同槽上。
+	 * 元素先由哈希值选定一个分片，它的k个下标都落在这个分片内，所以对单个元素的操作只涉及一个键，
+	 * 可以在集群模式下直接使用 BITFIELD 和 Lua 脚本。
+	 */
+
+	// 每个分片最多 2^27 位 (16MB)
+	static final long MAX_BITS_PER_SHARD = 1L << 27;
+
+	private final String keyPrefix;
+	private final int numOfShards;
+	private final long slotsPerShard;
+	private final int numOfHashFunctions;
+
+	BitmapShards(String keyPrefix, long numOfSlots, int bitsPerSlot, int numOfHashFunctions) {
+		Assert.hasText(keyPrefix, "keyPrefix is null or empty");
+		Assert.isTrue(numOfSlots > 0, "numOfSlots should > 0");
+		Assert.isTrue(bitsPerSlot > 0, "bitsPerSlot should > 0");
+		Assert.isTrue(numOfHashFunctions > 0, "numOfHashFunctions should > 0");
+
+		var slotsPerShardLimit = MAX_BITS_PER_SHARD / bitsPerSlot;
+		var shards = (numOfSlots + slotsPerShardLimit - 1) / slotsPerShardLimit;
+		Assert.isTrue(shards <= Integer.MAX_VALUE, "numOfSlots too large");
+
+		this.keyPrefix = keyPrefix;
+		this.numOfShards = (int) shards;
+		this.slotsPerShard = (numOfSlots + numOfShards - 1) / numOfShards;
+		this.numOfHashFunctions = numOfHashFunctions;
+	}
+
+	static long[] hash(String element) {
+		return Murmur3HashFunction.hash128(element);
+	}
+
+	String keyOf(long[] hash) {
+		// 取混合后的高32位映射到 [0, numOfShards)，与分片内取模得到的下标相互独立
+		var mixed = ((hash[0] ^ hash[1]) * 0x9E3779B97F4A7C15L) >>> 32;
+		return keyOf((int) ((mixed * numOfShards) >>> 32));
+	}
+
+	String keyOf(int shard) {
+		return keyPrefix + ":" + shard;
+	}
+
+	List<String> allKeys() {
+		var keys = new ArrayList<String>(numOfShards);
+		for (int i = 0; i < numOfShards; i++) {
+			keys.add(keyOf(i));
+		}
+		return keys;
+	}
+
+	long[] indexesOf(long[] hash) {
+		var indexes = new long[numOfHashFunctions];
+		BloomFilterUtils.indexes(hash[0], hash[1], numOfHashFunctions, slotsPerShard, indexes, 0);
+		return indexes;
+	}
+
+	int getNumOfShards() {
+		return numOfShards;
+	}
+
+	int getNumOfHashFunctions() {
+		return numOfHashFunctions;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.github.yingzhuo.turbocharger.redis.bloomfilter;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+public final class BloomFilterScripts {
+
+	public static final RedisScript<Boolean> COUNTING_REMOVE =
+		RedisScript.of(new ClassPathResource("META-INF/BloomFilter#counting-remove.lua"), Boolean.class);
+
+	@SuppressWarnings("rawtypes")
+	public static final RedisScript<List> SCALABLE_ADD =
+		RedisScript.of(new ClassPathResource("META-INF/BloomFilter#scalable-add.lua"), List.class);
+
+	private BloomFilterScripts() {
+		super();
+	}
+
+	public static List<RedisScript<?>> all() {
+		return List.of(
+			COUNTING_REMOVE,
+			SCALABLE_ADD
+		);
+	}
+
+}
@@ -0,0 +1,266 @@
+package com.github.yingzhuo.turbocharger.redis.bloomfilter;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilter;
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilterUtils;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.redis.connection.BitFieldSubCommands.BitFieldIncrBy.Overflow.SAT;
+import static org.springframework.data.redis.connection.BitFieldSubCommands.Offset.offset;
+
+public class CountingBloomFilter implements BloomFilter {
+
+	/*
+	 * 计数布隆过滤器，每个位换成一个4位无符号计数器 (BITFIELD u4)，因此支持删除元素。
+	 * 计数器饱和 (15) 后不再增减，避免溢出回绕导致误删。
+	 * 计数器按元素哈希分散到多个分片键上，单个元素的k个计数器在同一个键内。
+	 */
+
+	private static final BitFieldSubCommands.BitFieldType COUNTER_TYPE = BitFieldSubCommands.BitFieldType.unsigned(4);
+	private static final int PIPELINE_BATCH_SIZE = 1000;
+
+	private final RedisOperations<String, String> redisOperations;
+	private final String keyPrefix;
+	private final long numOfCounters;
+	private final BitmapShards shards;
+
+	public CountingBloomFilter(RedisOperations<String, String> redisOperations, String keyPrefix, long numOfCounters, int numOfHashFunctions) {
+		Assert.notNull(redisOperations, "redisOperations is null");
+		Assert.hasText(keyPrefix, "keyPrefix is null or empty");
+
+		this.redisOperations = redisOperations;
+		this.keyPrefix = keyPrefix;
+		this.numOfCounters = numOfCounters;
+		this.shards = new BitmapShards(keyPrefix, numOfCounters, 4, numOfHashFunctions);
+	}
+
+	public static CountingBloomFilter create(
+		RedisOperations<String, String> redisOperations,
+		String keyPrefix,
+		long expectedInsertions,
+		double falsePositiveRate) {
+
+		var numOfCounters = BloomFilterUtils.optimalNumOfBits(expectedInsertions, falsePositiveRate);
+		var numOfHashFunctions = BloomFilterUtils.optimalNumOfHashFunctions(expectedInsertions, numOfCounters);
+		return new CountingBloomFilter(redisOperations, keyPrefix, numOfCounters, numOfHashFunctions);
+	}
+
+	@Override
+	public void add(String element) {
+		Assert.notNull(element, "element is null");
+		addAll(List.of(element));
+	}
+
+	@Override
+	public void addAll(Collection<String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		var batch = new ArrayList<String>(Math.min(elements.size(), PIPELINE_BATCH_SIZE));
+		for (var element : elements) {
+			Assert.notNull(element, "element is null");
+			batch.add(element);
+
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				executePipelined(batch, true);
+				batch.clear();
+			}
+		}
+
+		if (!batch.isEmpty()) {
+			executePipelined(batch, true);
+		}
+	}
+
+	@Override
+	public boolean mightContain(@Nullable String element) {
+		// null认为不存在
+		if (element == null) {
+			return false;
+		}
+
+		return allPositive(executePipelined(List.of(element), false).get(0));
+	}
+
+	@Override
+	public boolean mightContainAll(Collection<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		for (var b : mightContainEach(new ArrayList<>(elements))) {
+			if (!b) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public List<Boolean> mightContainEach(List<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		var result = new ArrayList<Boolean>(elements.size());
+		var batch = new ArrayList<String>(Math.min(elements.size(), PIPELINE_BATCH_SIZE));
+
+		for (var element : elements) {
+			// null认为不存在，不需要查询
+			if (element == null) {
+				flushMightContain(batch, result);
+				result.add(false);
+				continue;
+			}
+
+			batch.add(element);
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				flushMightContain(batch, result);
+			}
+		}
+
+		flushMightContain(batch, result);
+		return result;
+	}
+
+	public boolean remove(@Nullable String element) {
+		if (element == null) {
+			return false;
+		}
+
+		var hash = BitmapShards.hash(element);
+		return Boolean.TRUE.equals(RedisScriptRegistry.getInstance(redisOperations).execute(
+			BloomFilterScripts.COUNTING_REMOVE,
+			List.of(shards.keyOf(hash)),
+			toArgs(shards.indexesOf(hash))
+		));
+	}
+
+	public int removeAll(Collection<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		var count = 0;
+		var batch = new ArrayList<String>(Math.min(elements.size(), PIPELINE_BATCH_SIZE));
+		for (var element : elements) {
+			if (element == null) {
+				continue;
+			}
+
+			batch.add(element);
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				count += removePipelined(batch);
+				batch.clear();
+			}
+		}
+
+		if (!batch.isEmpty()) {
+			count += removePipelined(batch);
+		}
+		return count;
+	}
+
+	public String getKeyPrefix() {
+		return keyPrefix;
+	}
+
+	public long getNumOfCounters() {
+		return numOfCounters;
+	}
+
+	public int getNumOfHashFunctions() {
+		return shards.getNumOfHashFunctions();
+	}
+
+	public List<String> getShardKeys() {
+		return shards.allKeys();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private void flushMightContain(List<String> batch, List<Boolean> result) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		for (var counters : executePipelined(batch, false)) {
+			result.add(allPositive(counters));
+		}
+		batch.clear();
+	}
+
+	// 每个元素一条 BITFIELD 命令，一个批次只需要一次网络往返
+	private List<Object> executePipelined(List<String> elements, boolean increment) {
+		return redisOperations.executePipelined(new SessionCallback<>() {
+			@Override
+			public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				var valueOps = redisOperations.opsForValue();
+				for (var element : elements) {
+					var hash = BitmapShards.hash(element);
+					var commands = BitFieldSubCommands.create();
+					for (var index : shards.indexesOf(hash)) {
+						if (increment) {
+							commands = commands.incr(COUNTER_TYPE).valueAt(offset(index).multipliedByTypeLength()).overflow(SAT).by(1L);
+						} else {
+							commands = commands.get(COUNTER_TYPE).valueAt(offset(index).multipliedByTypeLength());
+						}
+					}
+					valueOps.bitField(shards.keyOf(hash), commands);
+				}
+				return null;
+			}
+		});
+	}
+
+	private int removePipelined(List<String> elements) {
+		var scriptRegistry = RedisScriptRegistry.getInstance(redisOperations);
+
+		var results = redisOperations.executePipelined(new SessionCallback<>() {
+			@Override
+			public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				for (var element : elements) {
+					var hash = BitmapShards.hash(element);
+					scriptRegistry.execute(
+						BloomFilterScripts.COUNTING_REMOVE,
+						List.of(shards.keyOf(hash)),
+						toArgs(shards.indexesOf(hash))
+					);
+				}
+				return null;
+			}
+		});
+
+		var count = 0;
+		for (var result : results) {
+			if (Boolean.TRUE.equals(result)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private Object[] toArgs(long[] indexes) {
+		var args = new Object[indexes.length];
+		for (int i = 0; i < indexes.length; i++) {
+			args[i] = String.valueOf(indexes[i]);
+		}
+		return args;
+	}
+
+	private boolean allPositive(Object counters) {
+		if (!(counters instanceof List<?> list) || list.isEmpty()) {
+			return false;
+		}
+
+		for (var counter : list) {
+			if (!(counter instanceof Number n) || n.longValue() <= 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -2,41 +2,71 @@
 
 import com.github.yingzhuo.turbocharger.util.collection.CollectionUtils;
 import com.github.yingzhuo.turbocharger.util.hash.BloomFilter;
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilterUtils;
 import com.github.yingzhuo.turbocharger.util.hash.DigestHashFunction;
 import com.github.yingzhuo.turbocharger.util.hash.HashFunction;
 import lombok.Getter;
 import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 public class DistributedBloomFilter implements BloomFilter {
 
 	private static final int DEFAULT_BITMAP_SIZE = 10_0000_0000; // 十亿
+	private static final int PIPELINE_BATCH_SIZE = 1000;
 
 	private final List<HashFunction> hashFunctions = new ArrayList<>(5);
 	private final RedisOperations<String, String> redisOperations;
+
+	@Getter
 	private final String redisKey;
 
 	@Getter
 	private final int bitmapSize;
 
+	// 大于0时使用双重哈希模式，由一次 Murmur3-128 哈希推导出这么多个下标，不再使用 hashFunctions
+	@Getter
+	private final int numOfHashFunctions;
+
 	public DistributedBloomFilter(RedisOperations<String, String> redisOperations, String redisKey) {
 		this(redisOperations, redisKey, DEFAULT_BITMAP_SIZE);
 	}
 
 	public DistributedBloomFilter(RedisOperations<String, String> redisOperations, String redisKey, int bitmapSize) {
+		this(redisOperations, redisKey, bitmapSize, 0);
+		Assert.isTrue(bitmapSize >= 1000_0000, "bitmapSize should >= 10000000");
+	}
+
+	private DistributedBloomFilter(RedisOperations<String, String> redisOperations, String redisKey, int bitmapSize, int numOfHashFunctions) {
 		Assert.notNull(redisOperations, "redisOperations is null");
 		Assert.hasText(redisKey, "redisKey is null or empty");
-		Assert.isTrue(bitmapSize >= 1000_0000, "bitmapSize should >= 10000000");
+		Assert.isTrue(bitmapSize > 0, "bitmapSize should > 0");
 
 		this.redisOperations = redisOperations;
 		this.redisKey = redisKey;
 		this.bitmapSize = bitmapSize;
+		this.numOfHashFunctions = numOfHashFunctions;
+	}
+
+	public static DistributedBloomFilter create(
+		RedisOperations<String, String> redisOperations,
+		String key,
+		long expectedInsertions,
+		double falsePositiveRate) {
+
+		var numOfBits = BloomFilterUtils.optimalNumOfBits(expectedInsertions, falsePositiveRate);
+		Assert.isTrue(numOfBits <= Integer.MAX_VALUE, "expectedInsertions too large or falsePositiveRate too small");
+
+		var numOfHashFunctions = BloomFilterUtils.optimalNumOfHashFunctions(expectedInsertions, numOfBits);
+		return new DistributedBloomFilter(redisOperations, key, (int) numOfBits, numOfHashFunctions);
 	}
 
 	public static DistributedBloomFilter createDefault(
@@ -57,6 +87,7 @@ public List<HashFunction> getHashFunctions() {
 	}
 
 	public DistributedBloomFilter addHashFunctions(HashFunction first, HashFunction... moreFunctions) {
+		Assert.state(!isDoubleHashing(), "hash functions are derived from one Murmur3-128 hash in this mode");
 		CollectionUtils.nullSafeAdd(hashFunctions, first);
 		CollectionUtils.nullSafeAddAll(hashFunctions, moreFunctions);
 		return this;
@@ -65,14 +96,28 @@ public DistributedBloomFilter addHashFunctions(HashFunction first, HashFunction.
 	@Override
 	public void add(String element) {
 		Assert.notNull(element, "element is null");
-		Assert.notEmpty(hashFunctions, "hashFunctions is empty");
+		addAll(List.of(element));
+	}
 
-		hashFunctions.forEach(func -> {
-			var offset = func.apply(element) % bitmapSize;
-			offset = Math.abs(offset);
-			redisOperations.opsForValue()
-				.setBit(redisKey, offset, true);
-		});
+	@Override
+	public void addAll(Collection<String> elements) {
+		Assert.notNull(elements, "elements is null");
+		assertHashFunctions();
+
+		var batch = new ArrayList<String>(Math.min(elements.size(), PIPELINE_BATCH_SIZE));
+		for (var element : elements) {
+			Assert.notNull(element, "element is null");
+			batch.add(element);
+
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				executePipelined(offsetsOf(batch), true);
+				batch.clear();
+			}
+		}
+
+		if (!batch.isEmpty()) {
+			executePipelined(offsetsOf(batch), true);
+		}
 	}
 
 	@Override
@@ -82,19 +127,127 @@ public boolean mightContain(@Nullable String element) {
 			return false;
 		}
 
-		Assert.notEmpty(hashFunctions, "hashFunctions is empty");
+		assertHashFunctions();
 
-		for (var func : hashFunctions) {
-			var offset = func.apply(element) % bitmapSize;
-			offset = Math.abs(offset);
-			var b = redisOperations.opsForValue()
-				.getBit(redisKey, offset);
+		var results = executePipelined(offsetsOf(List.of(element)), false);
+		return allTrue(results, 0, results.size());
+	}
+
+	@Override
+	public boolean mightContainAll(Collection<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
 
+		for (var b : mightContainEach(new ArrayList<>(elements))) {
 			if (!b) {
 				return false;
 			}
 		}
+		return true;
+	}
+
+	@Override
+	public List<Boolean> mightContainEach(List<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
+		assertHashFunctions();
+
+		var result = new ArrayList<Boolean>(elements.size());
+		var batch = new ArrayList<String>(Math.min(elements.size(), PIPELINE_BATCH_SIZE));
+
+		for (var element : elements) {
+			// null认为不存在，不需要查询
+			if (element == null) {
+				flushMightContain(batch, result);
+				result.add(false);
+				continue;
+			}
+
+			batch.add(element);
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				flushMightContain(batch, result);
+			}
+		}
 
+		flushMightContain(batch, result);
+		return result;
+	}
+
+	private void flushMightContain(List<String> batch, List<Boolean> result) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		var k = indexCountPerElement();
+		var bits = executePipelined(offsetsOf(batch), false);
+		for (int i = 0; i < batch.size(); i++) {
+			result.add(allTrue(bits, i * k, (i + 1) * k));
+		}
+		batch.clear();
+	}
+
+	RedisOperations<String, String> getRedisOperations() {
+		return redisOperations;
+	}
+
+	long[] offsetsOf(String element) {
+		assertHashFunctions();
+		return offsetsOf(List.of(element));
+	}
+
+	// 所有偏移量在本地计算，每个批次只需要一次网络往返
+	private long[] offsetsOf(List<String> elements) {
+		var k = indexCountPerElement();
+		var offsets = new long[elements.size() * k];
+		var i = 0;
+		for (var element : elements) {
+			if (isDoubleHashing()) {
+				BloomFilterUtils.indexes(element, k, bitmapSize, offsets, i);
+				i += k;
+				continue;
+			}
+
+			for (var func : hashFunctions) {
+				var offset = func.apply(element) % bitmapSize;
+				offsets[i++] = Math.abs(offset);
+			}
+		}
+		return offsets;
+	}
+
+	private boolean isDoubleHashing() {
+		return numOfHashFunctions > 0;
+	}
+
+	private int indexCountPerElement() {
+		return isDoubleHashing() ? numOfHashFunctions : hashFunctions.size();
+	}
+
+	private void assertHashFunctions() {
+		Assert.isTrue(isDoubleHashing() || !hashFunctions.isEmpty(), "hashFunctions is empty");
+	}
+
+	private List<Object> executePipelined(long[] offsets, boolean setBit) {
+		return redisOperations.executePipelined(new SessionCallback<>() {
+			@Override
+			public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				var valueOps = redisOperations.opsForValue();
+				for (var offset : offsets) {
+					if (setBit) {
+						valueOps.setBit(redisKey, offset, true);
+					} else {
+						valueOps.getBit(redisKey, offset);
+					}
+				}
+				return null;
+			}
+		});
+	}
+
+	private boolean allTrue(List<Object> bits, int fromInclusive, int toExclusive) {
+		for (int i = fromInclusive; i < toExclusive; i++) {
+			if (!Boolean.TRUE.equals(bits.get(i))) {
+				return false;
+			}
+		}
 		return true;
 	}
 
@@ -0,0 +1,306 @@
+package com.github.yingzhuo.turbocharger.redis.bloomfilter;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilter;
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilterUtils;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ScalableBloomFilter implements BloomFilter {
+
+	/*
+	 * 可扩展布隆过滤器 (Almeida et al. Scalable Bloom Filters)
+	 *
+	 * 1. 从一个较小的子过滤器开始，元素个数达到子过滤器的容量 (即达到设计的填充率) 后追加一个新的子过滤器。
+	 * 2. 第i个子过滤器的容量为 initialCapacity * growthFactor^i，误判率为 falsePositiveRate * (1 - r) * r^i，
+	 *    总误判率不超过 falsePositiveRate。
+	 * 3. 新元素只写入最后一个子过滤器，查询时在一次 pipeline 中检查所有的子过滤器。
+	 * 4. 子过滤器个数与元素个数保存在 "前缀:meta" 中，由 Lua 脚本原子地计数和扩容。
+	 * 5. 每个子过滤器本身按元素哈希分片，键为 "前缀:子过滤器序号:分片序号"。
+	 */
+
+	private static final int PIPELINE_BATCH_SIZE = 1000;
+	private static final int DEFAULT_GROWTH_FACTOR = 2;
+	private static final double DEFAULT_TIGHTENING_RATIO = 0.8D;
+
+	private final RedisOperations<String, String> redisOperations;
+	private final String keyPrefix;
+	private final String metaKey;
+	private final long initialCapacity;
+	private final double falsePositiveRate;
+	private final int growthFactor;
+	private final double tighteningRatio;
+	private final List<BitmapShards> filters = new CopyOnWriteArrayList<>();
+	private volatile long remainingCapacity;
+
+	public ScalableBloomFilter(RedisOperations<String, String> redisOperations, String keyPrefix, long initialCapacity, double falsePositiveRate) {
+		this(redisOperations, keyPrefix, initialCapacity, falsePositiveRate, DEFAULT_GROWTH_FACTOR, DEFAULT_TIGHTENING_RATIO);
+	}
+
+	public ScalableBloomFilter(
+		RedisOperations<String, String> redisOperations,
+		String keyPrefix,
+		long initialCapacity,
+		double falsePositiveRate,
+		int growthFactor,
+		double tighteningRatio) {
+
+		Assert.notNull(redisOperations, "redisOperations is null");
+		Assert.hasText(keyPrefix, "keyPrefix is null or empty");
+		Assert.isTrue(initialCapacity > 0, "initialCapacity should > 0");
+		Assert.isTrue(falsePositiveRate > 0.0 && falsePositiveRate < 1.0, "falsePositiveRate should between 0 and 1");
+		Assert.isTrue(growthFactor >= 2, "growthFactor should >= 2");
+		Assert.isTrue(tighteningRatio > 0.0 && tighteningRatio < 1.0, "tighteningRatio should between 0 and 1");
+
+		this.redisOperations = redisOperations;
+		this.keyPrefix = keyPrefix;
+		this.metaKey = keyPrefix + ":meta";
+		this.initialCapacity = initialCapacity;
+		this.falsePositiveRate = falsePositiveRate;
+		this.growthFactor = growthFactor;
+		this.tighteningRatio = tighteningRatio;
+		this.filters.add(newFilter(0));
+		this.remainingCapacity = initialCapacity;
+	}
+
+	@Override
+	public void add(String element) {
+		Assert.notNull(element, "element is null");
+		addAll(List.of(element));
+	}
+
+	@Override
+	public void addAll(Collection<String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		var list = new ArrayList<String>(elements);
+		for (var element : list) {
+			Assert.notNull(element, "element is null");
+		}
+
+		var from = 0;
+		while (from < list.size()) {
+			// 批次不超过最后一个子过滤器的剩余容量，避免一个批次把子过滤器写得过满
+			var n = (int) Math.max(1L, Math.min(Math.min(PIPELINE_BATCH_SIZE, remainingCapacity), list.size() - from));
+			var batch = list.subList(from, from + n);
+			from += n;
+
+			// 已经存在的元素不再写入，否则会被重复计数
+			var present = mightContainPipelined(batch);
+			var absent = new LinkedHashSet<String>();
+			for (int i = 0; i < batch.size(); i++) {
+				if (!present.get(i)) {
+					absent.add(batch.get(i));
+				}
+			}
+
+			if (!absent.isEmpty()) {
+				addPipelined(new ArrayList<>(absent));
+			}
+		}
+	}
+
+	@Override
+	public boolean mightContain(@Nullable String element) {
+		// null认为不存在
+		if (element == null) {
+			return false;
+		}
+
+		return mightContainPipelined(List.of(element)).get(0);
+	}
+
+	@Override
+	public boolean mightContainAll(Collection<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		for (var b : mightContainEach(new ArrayList<>(elements))) {
+			if (!b) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public List<Boolean> mightContainEach(List<@Nullable String> elements) {
+		Assert.notNull(elements, "elements is null");
+
+		var result = new ArrayList<Boolean>(elements.size());
+		var batch = new ArrayList<String>(Math.min(elements.size(), PIPELINE_BATCH_SIZE));
+
+		for (var element : elements) {
+			// null认为不存在，不需要查询
+			if (element == null) {
+				flushMightContain(batch, result);
+				result.add(false);
+				continue;
+			}
+
+			batch.add(element);
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				flushMightContain(batch, result);
+			}
+		}
+
+		flushMightContain(batch, result);
+		return result;
+	}
+
+	public String getKeyPrefix() {
+		return keyPrefix;
+	}
+
+	public int getNumOfFilters() {
+		return filters.size();
+	}
+
+	public List<String> getKeys() {
+		var keys = new ArrayList<String>();
+		keys.add(metaKey);
+		for (var filter : filters) {
+			keys.addAll(filter.allKeys());
+		}
+		return keys;
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private void flushMightContain(List<String> batch, List<Boolean> result) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		result.addAll(mightContainPipelined(batch));
+		batch.clear();
+	}
+
+	private List<Boolean> mightContainPipelined(List<String> elements) {
+		while (true) {
+			var snapshot = List.copyOf(filters);
+
+			var hashes = new ArrayList<long[]>(elements.size());
+			for (var element : elements) {
+				hashes.add(BitmapShards.hash(element));
+			}
+
+			// 第一条命令读取子过滤器个数，其余为所有子过滤器的 GETBIT
+			var results = redisOperations.executePipelined(new SessionCallback<>() {
+				@Override
+				public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+					redisOperations.opsForHash().get(metaKey, "filters");
+					var valueOps = redisOperations.opsForValue();
+					for (var hash : hashes) {
+						for (var filter : snapshot) {
+							var key = filter.keyOf(hash);
+							for (var index : filter.indexesOf(hash)) {
+								valueOps.getBit(key, index);
+							}
+						}
+					}
+					return null;
+				}
+			});
+
+			// 其他节点已经扩容，补齐本地的子过滤器后重新查询
+			var remoteCount = parseInt(results.get(0), 1);
+			if (remoteCount > snapshot.size()) {
+				ensureFilters(remoteCount);
+				continue;
+			}
+
+			var present = new ArrayList<Boolean>(elements.size());
+			var i = 1;
+			for (int e = 0; e < elements.size(); e++) {
+				var found = false;
+				for (var filter : snapshot) {
+					var all = true;
+					for (int j = 0; j < filter.getNumOfHashFunctions(); j++) {
+						all &= Boolean.TRUE.equals(results.get(i++));
+					}
+					found |= all;
+				}
+				present.add(found);
+			}
+			return present;
+		}
+	}
+
+	private void addPipelined(List<String> elements) {
+		var scriptRegistry = RedisScriptRegistry.getInstance(redisOperations);
+		var index = filters.size() - 1;
+		var last = filters.get(index);
+
+		var results = redisOperations.executePipelined(new SessionCallback<>() {
+			@Override
+			public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				var valueOps = redisOperations.opsForValue();
+				for (var element : elements) {
+					var hash = BitmapShards.hash(element);
+					var key = last.keyOf(hash);
+					for (var offset : last.indexesOf(hash)) {
+						valueOps.setBit(key, offset, true);
+					}
+					scriptRegistry.execute(
+						BloomFilterScripts.SCALABLE_ADD,
+						List.of(metaKey),
+						String.valueOf(initialCapacity),
+						String.valueOf(growthFactor),
+						String.valueOf(index)
+					);
+				}
+				return null;
+			}
+		});
+
+		// 最后一个脚本的返回值反映了本批次之后的状态
+		for (int i = results.size() - 1; i >= 0; i--) {
+			if (results.get(i) instanceof List<?> state && state.size() == 2) {
+				var numOfFilters = parseInt(state.get(0), 1);
+				ensureFilters(numOfFilters);
+				remainingCapacity = capacityOf(numOfFilters - 1) - parseInt(state.get(1), 0);
+				break;
+			}
+		}
+	}
+
+	private synchronized void ensureFilters(int numOfFilters) {
+		while (filters.size() < numOfFilters) {
+			filters.add(newFilter(filters.size()));
+		}
+	}
+
+	private BitmapShards newFilter(int index) {
+		var capacity = capacityOf(index);
+		var rate = falsePositiveRate * (1.0 - tighteningRatio) * Math.pow(tighteningRatio, index);
+		var numOfBits = BloomFilterUtils.optimalNumOfBits(capacity, rate);
+		var numOfHashFunctions = BloomFilterUtils.optimalNumOfHashFunctions(capacity, numOfBits);
+		return new BitmapShards(keyPrefix + ":" + index, numOfBits, 1, numOfHashFunctions);
+	}
+
+	private long capacityOf(int index) {
+		var capacity = initialCapacity * Math.pow(growthFactor, index);
+		Assert.state(capacity < (1L << 53), "too many sub filters");
+		return (long) capacity;
+	}
+
+	private int parseInt(@Nullable Object value, int defaultValue) {
+		if (value instanceof Number n) {
+			return n.intValue();
+		}
+		if (value instanceof String s) {
+			return Integer.parseInt(s);
+		}
+		return defaultValue;
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.github.yingzhuo.turbocharger.redis.bloomfilter;
+
+import com.github.yingzhuo.turbocharger.util.hash.BloomFilter;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TieredBloomFilter implements BloomFilter, AutoCloseable {
+
+	/*
+	 * 本地保存一份 redis 位图的副本，位的布局与 redis 的 SETBIT 一致 (每个字节的最高位为偏移量0)。
+	 *
+	 * 1. 位只会被置位不会被清除，所以本地副本总是 redis 位图的子集。本地判定存在时一定存在，不需要访问 redis。
+	 * 2. 本地判定不存在时，副本可能已经过时。默认 (trustLocalNegatives 为 false) 仍会访问一次 redis，
+	 *    并把 redis 中存在的结果学习到本地，不会漏判。
+	 *    trustLocalNegatives 为 true 时直接返回不存在，不访问 redis，代价是会漏判 (假阴性):
+	 *    其他节点新加入的元素最多要等一个完整的同步轮次 (位图字节数 / (64KB * 16) 个刷新周期) 才能被本节点看到。
+	 *    刚创建时本地副本为空，完成第一轮完整同步 (isWarmed()) 之前，即使 trustLocalNegatives 为 true 也访问 redis。
+	 * 3. add 先写本地，再按批次写入 redis。写入 redis 失败时未写入的元素重新入队，下次 flush 时重试。
+	 * 4. 后台线程周期性地用 GETRANGE 分块把 redis 位图合并到本地，每个周期只同步若干块。
+	 */
+
+	private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+	private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	private static final int DEFAULT_CHUNKS_PER_REFRESH = 16;
+	private static final int FLUSH_BATCH_SIZE = 1000;
+
+	private final DistributedBloomFilter remote;
+	private final boolean trustLocalNegatives;
+	private final byte[] bitmap;
+	private final Queue<String> pendingAdds = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final ScheduledExecutorService scheduler;
+	private int refreshCursor = 0;
+	private long syncedChunks = 0L;
+	private volatile boolean warmed = false;
+
+	public TieredBloomFilter(DistributedBloomFilter remote) {
+		this(remote, Duration.ofSeconds(1L), false);
+	}
+
+	public TieredBloomFilter(DistributedBloomFilter remote, Duration refreshInterval, boolean trustLocalNegatives) {
+		Assert.notNull(remote, "remote is required");
+		Assert.notNull(refreshInterval, "refreshInterval is required");
+		Assert.isTrue(!refreshInterval.isNegative() && !refreshInterval.isZero(), "refreshInterval should > 0");
+
+		this.remote = remote;
+		this.trustLocalNegatives = trustLocalNegatives;
+		this.bitmap = new byte[(int) ((remote.getBitmapSize() + 7L) >>> 3)];
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			var thread = new Thread(runnable, "tiered-bloom-filter-" + remote.getRedisKey());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		var millis = refreshInterval.toMillis();
+		this.scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0L, millis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void add(String element) {
+		Assert.notNull(element, "element is null");
+
+		setLocal(remote.offsetsOf(element));
+		pendingAdds.offer(element);
+
+		if (pendingCount.incrementAndGet() >= FLUSH_BATCH_SIZE) {
+			try {
+				flush();
+			} catch (DataAccessException e) {
+				// 元素已重新入队，由后台同步重试
+			}
+		}
+	}
+
+	@Override
+	public boolean mightContain(@Nullable String element) {
+		// null认为不存在
+		if (element == null) {
+			return false;
+		}
+
+		var offsets = remote.offsetsOf(element);
+		if (allSetLocal(offsets)) {
+			return true;
+		}
+
+		if (trustLocalNegatives && warmed) {
+			return false;
+		}
+
+		var b = remote.mightContain(element);
+		if (b) {
+			setLocal(offsets);
+		}
+		return b;
+	}
+
+	public void flush() {
+		var drained = new ArrayList<String>();
+		String element;
+		while ((element = pendingAdds.poll()) != null) {
+			pendingCount.decrementAndGet();
+			drained.add(element);
+		}
+
+		var sent = 0;
+		try {
+			while (sent < drained.size()) {
+				var end = Math.min(sent + FLUSH_BATCH_SIZE, drained.size());
+				remote.addAll(drained.subList(sent, end));
+				sent = end;
+			}
+		} catch (RuntimeException e) {
+			// 未写入 redis 的元素放回队列，否则其他节点会永久漏判这些元素
+			for (var unsent : drained.subList(sent, drained.size())) {
+				pendingAdds.offer(unsent);
+				pendingCount.incrementAndGet();
+			}
+			throw e;
+		}
+	}
+
+	public synchronized void refresh() {
+		flush();
+
+		var chunkCount = (bitmap.length + DEFAULT_CHUNK_SIZE - 1) / DEFAULT_CHUNK_SIZE;
+		var count = Math.min(DEFAULT_CHUNKS_PER_REFRESH, chunkCount);
+		var starts = new long[count];
+		for (int i = 0; i < count; i++) {
+			starts[i] = (long) refreshCursor * DEFAULT_CHUNK_SIZE;
+			refreshCursor = (refreshCursor + 1) % chunkCount;
+		}
+
+		var redisOperations = remote.getRedisOperations();
+		@SuppressWarnings("unchecked")
+		var keySerializer = (RedisSerializer<String>) Objects.requireNonNullElse(redisOperations.getKeySerializer(), RedisSerializer.string());
+		var key = keySerializer.serialize(remote.getRedisKey());
+
+		// 多个 GETRANGE 在一次 pipeline 中完成，结果保持原始字节
+		var chunks = redisOperations.executePipelined((RedisCallback<Object>) connection -> {
+			for (var start : starts) {
+				var end = Math.min(start + DEFAULT_CHUNK_SIZE, bitmap.length) - 1;
+				connection.stringCommands().getRange(key, start, end);
+			}
+			return null;
+		}, RedisSerializer.byteArray());
+
+		for (int i = 0; i < chunks.size() && i < starts.length; i++) {
+			if (chunks.get(i) instanceof byte[] bytes) {
+				mergeLocal((int) starts[i], bytes);
+			}
+		}
+
+		// 每一块都至少同步过一次后，本地副本才可以用于判定不存在
+		if (!warmed) {
+			syncedChunks += count;
+			if (syncedChunks >= chunkCount) {
+				warmed = true;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+		flush();
+	}
+
+	public boolean isTrustLocalNegatives() {
+		return trustLocalNegatives;
+	}
+
+	public boolean isWarmed() {
+		return warmed;
+	}
+
+	public int getPendingCount() {
+		return pendingCount.get();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (DataAccessException e) {
+			// 本周期同步失败，下个周期重试
+		}
+	}
+
+	private void setLocal(long[] offsets) {
+		for (var offset : offsets) {
+			var i = (int) (offset >>> 3);
+			var mask = (byte) (0x80 >>> (offset & 7));
+			if (((byte) BYTES.getAcquire(bitmap, i) & mask) == 0) {
+				BYTES.getAndBitwiseOr(bitmap, i, mask);
+			}
+		}
+	}
+
+	private boolean allSetLocal(long[] offsets) {
+		for (var offset : offsets) {
+			var mask = (byte) (0x80 >>> (offset & 7));
+			if (((byte) BYTES.getAcquire(bitmap, (int) (offset >>> 3)) & mask) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void mergeLocal(int start, byte[] bytes) {
+		for (int i = 0; i < bytes.length && start + i < bitmap.length; i++) {
+			var b = bytes[i];
+			if (b != 0) {
+				BYTES.getAndBitwiseOr(bitmap, start + i, b);
+			}
+		}
+	}
+
+}
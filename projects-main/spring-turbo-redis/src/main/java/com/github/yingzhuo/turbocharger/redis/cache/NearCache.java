@@ -0,0 +1,300 @@
+package com.github.yingzhuo.turbocharger.redis.cache;
+
+import com.github.yingzhuo.turbocharger.redis.util.RedisSubscription;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class NearCache implements AutoCloseable {
+
+	/*
+	 * 字符串值的进程内近端缓存，读取命中时不访问 redis。
+	 *
+	 * 1. 本地存储按键的哈希分为多个段，每段是一个按访问顺序排列的 LinkedHashMap (LRU)，锁的粒度为段。
+	 * 2. 失效依赖 redis 的键空间通知 (notify-keyspace-events 至少需要包含 K 与对应的事件类型)，
+	 *    键被修改、删除或过期后，所有节点的本地副本都会失效。
+	 * 3. 通知可能丢失 (比如订阅连接断开)，所以本地副本还有一个较短的TTL作为兜底。
+	 * 4. 读取未命中时先在段中为该键登记一个加载标记，从 redis 取回值后标记仍在才写入本地，
+	 *    该键的失效会清除标记，避免把失效通知之前读到的旧值写入本地。其他键的失效不影响本次加载。
+	 * 5. asValueOperations() 返回 ValueOperations 的装饰器，读取经过本缓存，写入后失效本地副本，
+	 *    可以直接替换现有代码中的 redisTemplate.opsForValue()。
+	 */
+
+	private static final int SEGMENT_COUNT = 16;
+
+	private final RedisOperations<String, String> redisOperations;
+	private final Segment[] segments;
+	private final long localTtlInNanos;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder invalidationCount = new LongAdder();
+	private final RedisSubscription subscription;
+
+	public NearCache(RedisOperations<String, String> redisOperations, int maximumSize, Duration localTtl) {
+		this(redisOperations, maximumSize, localTtl, "*");
+	}
+
+	public NearCache(RedisOperations<String, String> redisOperations, int maximumSize, Duration localTtl, String keyPattern) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.isTrue(maximumSize > 0, "maximumSize should > 0");
+		Assert.notNull(localTtl, "localTtl is required");
+		Assert.isTrue(!localTtl.isNegative() && !localTtl.isZero(), "localTtl should > 0");
+		Assert.hasText(keyPattern, "keyPattern is required");
+
+		this.redisOperations = redisOperations;
+		this.localTtlInNanos = localTtl.toNanos();
+		this.segments = new Segment[SEGMENT_COUNT];
+		for (int i = 0; i < SEGMENT_COUNT; i++) {
+			segments[i] = new Segment(Math.max(1, (maximumSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT));
+		}
+
+		this.subscription = RedisSubscription.subscribe(redisOperations, new KeyspaceListener(), new PatternTopic("__keyspace@*__:" + keyPattern));
+	}
+
+	@Nullable
+	public String get(String key) {
+		Assert.notNull(key, "key is required");
+
+		var segment = segmentOf(key);
+		var value = segment.get(key, System.nanoTime());
+		if (value != null) {
+			hitCount.increment();
+			return value;
+		}
+
+		missCount.increment();
+		var loading = segment.beginLoad(key);
+		try {
+			value = redisOperations.opsForValue().get(key);
+		} catch (RuntimeException e) {
+			segment.endLoad(key, loading);
+			throw e;
+		}
+		segment.completeLoad(key, value, System.nanoTime() + localTtlInNanos, loading);
+		return value;
+	}
+
+	public List<@Nullable String> multiGet(Collection<String> keys) {
+		Assert.notNull(keys, "keys is required");
+
+		var keyList = new ArrayList<>(keys);
+		var result = new ArrayList<@Nullable String>(keyList.size());
+		var missingKeys = new ArrayList<String>();
+		var missingIndexes = new ArrayList<Integer>();
+		var loadings = new ArrayList<Object>();
+		var now = System.nanoTime();
+
+		for (int i = 0; i < keyList.size(); i++) {
+			var key = keyList.get(i);
+			var segment = segmentOf(key);
+			var value = segment.get(key, now);
+			if (value != null) {
+				hitCount.increment();
+			} else {
+				missCount.increment();
+				missingKeys.add(key);
+				missingIndexes.add(i);
+				loadings.add(segment.beginLoad(key));
+			}
+			result.add(value);
+		}
+
+		if (missingKeys.isEmpty()) {
+			return result;
+		}
+
+		// 未命中的键一次 MGET 取回
+		List<@Nullable String> values = null;
+		try {
+			values = redisOperations.opsForValue().multiGet(missingKeys);
+		} finally {
+			var deadline = System.nanoTime() + localTtlInNanos;
+			for (int i = 0; i < missingKeys.size(); i++) {
+				var key = missingKeys.get(i);
+				var value = values != null && i < values.size() ? values.get(i) : null;
+				result.set(missingIndexes.get(i), value);
+				segmentOf(key).completeLoad(key, value, deadline, loadings.get(i));
+			}
+		}
+		return result;
+	}
+
+	// 先写 redis 再失效本地副本，写入之前开始的读取不会把旧值留在本地
+	public void set(String key, String value) {
+		redisOperations.opsForValue().set(key, value);
+		invalidate(key);
+	}
+
+	public void set(String key, String value, Duration ttl) {
+		redisOperations.opsForValue().set(key, value, ttl);
+		invalidate(key);
+	}
+
+	public boolean delete(String key) {
+		var deleted = Boolean.TRUE.equals(redisOperations.delete(key));
+		invalidate(key);
+		return deleted;
+	}
+
+	public void invalidate(String key) {
+		Assert.notNull(key, "key is required");
+		segmentOf(key).invalidate(key);
+		invalidationCount.increment();
+	}
+
+	public void invalidateAll() {
+		for (var segment : segments) {
+			segment.invalidateAll();
+		}
+		invalidationCount.increment();
+	}
+
+	// 读取经过本缓存的 ValueOperations，写入 redis 后失效本地副本
+	public ValueOperations<String, String> asValueOperations() {
+		return new NearCachingValueOperations(this, redisOperations.opsForValue());
+	}
+
+	public int size() {
+		var size = 0;
+		for (var segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	public boolean isSubscribed() {
+		return subscription.isSubscribed();
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	public double getHitRate() {
+		var hits = getHitCount();
+		var total = hits + getMissCount();
+		return total == 0L ? 0.0D : (double) hits / total;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	public long getInvalidationCount() {
+		return invalidationCount.sum();
+	}
+
+	@Override
+	public void close() {
+		subscription.close();
+		invalidateAll();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private Segment segmentOf(String key) {
+		var h = key.hashCode();
+		h ^= h >>> 16;
+		return segments[h & (SEGMENT_COUNT - 1)];
+	}
+
+	private record Entry(String value, long deadline) {
+	}
+
+	private class Segment {
+		private final LinkedHashMap<String, Entry> entries;
+
+		// 正在从 redis 加载的键及其加载标记
+		private final Map<String, Object> loadings = new HashMap<>();
+
+		private Segment(int maximumSize) {
+			this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+					if (size() > maximumSize) {
+						evictionCount.increment();
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+
+		@Nullable
+		private synchronized String get(String key, long now) {
+			var entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.deadline() - now <= 0L) {
+				entries.remove(key);
+				return null;
+			}
+			return entry.value();
+		}
+
+		// 同一个键并发加载时后登记的标记生效，先完成的加载不写入本地
+		private synchronized Object beginLoad(String key) {
+			var loading = new Object();
+			loadings.put(key, loading);
+			return loading;
+		}
+
+		// 加载期间该键没有被失效才写入本地
+		private synchronized void completeLoad(String key, @Nullable String value, long deadline, Object loading) {
+			if (loadings.remove(key, loading) && value != null) {
+				entries.put(key, new Entry(value, deadline));
+			}
+		}
+
+		private synchronized void endLoad(String key, Object loading) {
+			loadings.remove(key, loading);
+		}
+
+		private synchronized void invalidate(String key) {
+			loadings.remove(key);
+			entries.remove(key);
+		}
+
+		private synchronized void invalidateAll() {
+			loadings.clear();
+			entries.clear();
+		}
+
+		private synchronized int size() {
+			return entries.size();
+		}
+	}
+
+	private class KeyspaceListener implements MessageListener {
+		@Override
+		public void onMessage(Message message, byte @Nullable [] pattern) {
+			// 频道为 "__keyspace@<db>__:<key>"
+			var channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+			var i = channel.indexOf("__:");
+			if (i >= 0) {
+				invalidate(channel.substring(i + 3));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,333 @@
+package com.github.yingzhuo.turbocharger.redis.cache;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SetSpec;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+final class NearCachingValueOperations implements ValueOperations<String, String> {
+
+	/*
+	 * NearCache 的 ValueOperations 装饰器。
+	 *
+	 * 1. get 与 multiGet 经过近端缓存。
+	 * 2. 修改值的操作先写 redis 再失效本地副本。
+	 * 3. 其他操作 (只修改TTL、读取子串、读取位等) 直接交给被装饰的 ValueOperations。
+	 */
+
+	private final NearCache nearCache;
+	private final ValueOperations<String, String> delegate;
+
+	NearCachingValueOperations(NearCache nearCache, ValueOperations<String, String> delegate) {
+		this.nearCache = nearCache;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void set(String key, String value) {
+		delegate.set(key, value);
+		nearCache.invalidate(key);
+	}
+
+	@Override
+	public void set(String key, String value, Expiration expiration) {
+		delegate.set(key, value, expiration);
+		nearCache.invalidate(key);
+	}
+
+	@Override
+	public void set(String key, String value, long timeout, TimeUnit unit) {
+		delegate.set(key, value, timeout, unit);
+		nearCache.invalidate(key);
+	}
+
+	@Override
+	public void set(String key, String value, Duration timeout) {
+		delegate.set(key, value, timeout);
+		nearCache.invalidate(key);
+	}
+
+	@Nullable
+	@Override
+	public Boolean set(String key, String value, Consumer<SetSpec<String, String>> spec) {
+		var result = delegate.set(key, value, spec);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String setGet(String key, String value, Expiration expiration) {
+		var result = delegate.setGet(key, value, expiration);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String setGet(String key, String value, long timeout, TimeUnit unit) {
+		var result = delegate.setGet(key, value, timeout, unit);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String setGet(String key, String value, Duration duration) {
+		var result = delegate.setGet(key, value, duration);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String setGet(String key, String value, Consumer<SetSpec<String, String>> spec) {
+		var result = delegate.setGet(key, value, spec);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfAbsent(String key, String value) {
+		var result = delegate.setIfAbsent(key, value);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfAbsent(String key, String value, Expiration expiration) {
+		var result = delegate.setIfAbsent(key, value, expiration);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+		var result = delegate.setIfAbsent(key, value, timeout, unit);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfAbsent(String key, String value, Duration timeout) {
+		var result = delegate.setIfAbsent(key, value, timeout);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfPresent(String key, String value) {
+		var result = delegate.setIfPresent(key, value);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfPresent(String key, String value, Expiration expiration) {
+		var result = delegate.setIfPresent(key, value, expiration);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfPresent(String key, String value, long timeout, TimeUnit unit) {
+		var result = delegate.setIfPresent(key, value, timeout, unit);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean setIfPresent(String key, String value, Duration timeout) {
+		var result = delegate.setIfPresent(key, value, timeout);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean compareAndSet(String key, String expectedValue, String newValue) {
+		var result = delegate.compareAndSet(key, expectedValue, newValue);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Override
+	public void multiSet(Map<? extends String, ? extends String> map) {
+		delegate.multiSet(map);
+		map.keySet().forEach(nearCache::invalidate);
+	}
+
+	@Nullable
+	@Override
+	public Boolean multiSetIfAbsent(Map<? extends String, ? extends String> map) {
+		var result = delegate.multiSetIfAbsent(map);
+		map.keySet().forEach(nearCache::invalidate);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String get(Object key) {
+		if (key instanceof String s) {
+			return nearCache.get(s);
+		}
+		return delegate.get(key);
+	}
+
+	@Nullable
+	@Override
+	public String getAndDelete(String key) {
+		var result = delegate.getAndDelete(key);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String getAndExpire(String key, Expiration expiration) {
+		return delegate.getAndExpire(key, expiration);
+	}
+
+	@Nullable
+	@Override
+	public String getAndExpire(String key, long timeout, TimeUnit unit) {
+		return delegate.getAndExpire(key, timeout, unit);
+	}
+
+	@Nullable
+	@Override
+	public String getAndExpire(String key, Duration timeout) {
+		return delegate.getAndExpire(key, timeout);
+	}
+
+	@Nullable
+	@Override
+	public String getAndPersist(String key) {
+		return delegate.getAndPersist(key);
+	}
+
+	@Nullable
+	@Override
+	public String getAndSet(String key, String value) {
+		var result = delegate.getAndSet(key, value);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Override
+	public List<@Nullable String> multiGet(Collection<String> keys) {
+		return nearCache.multiGet(keys);
+	}
+
+	@Nullable
+	@Override
+	public Long increment(String key) {
+		var result = delegate.increment(key);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Long increment(String key, long delta) {
+		var result = delegate.increment(key, delta);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Double increment(String key, double delta) {
+		var result = delegate.increment(key, delta);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Long decrement(String key) {
+		var result = delegate.decrement(key);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Long decrement(String key, long delta) {
+		var result = delegate.decrement(key, delta);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Integer append(String key, String value) {
+		var result = delegate.append(key, value);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public String get(String key, long start, long end) {
+		return delegate.get(key, start, end);
+	}
+
+	@Override
+	public void set(String key, String value, long offset) {
+		delegate.set(key, value, offset);
+		nearCache.invalidate(key);
+	}
+
+	@Nullable
+	@Override
+	public Long size(String key) {
+		return delegate.size(key);
+	}
+
+	@Nullable
+	@Override
+	public Boolean setBit(String key, long offset, boolean value) {
+		var result = delegate.setBit(key, offset, value);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Nullable
+	@Override
+	public Boolean getBit(String key, long offset) {
+		return delegate.getBit(key, offset);
+	}
+
+	// 子命令可能包含 SET/INCRBY，一律失效
+	@Nullable
+	@Override
+	public List<Long> bitField(String key, BitFieldSubCommands subCommands) {
+		var result = delegate.bitField(key, subCommands);
+		nearCache.invalidate(key);
+		return result;
+	}
+
+	@Override
+	public RedisOperations<String, String> getOperations() {
+		return delegate.getOperations();
+	}
+
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.yingzhuo.turbocharger.redis.cache;
+
+import org.jspecify.annotations.NullMarked;
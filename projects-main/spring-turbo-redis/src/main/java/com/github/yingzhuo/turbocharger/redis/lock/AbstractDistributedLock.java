@@ -0,0 +1,234 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.concurrent.CurrentThreadUtils;
+import com.github.yingzhuo.turbocharger.util.concurrent.UncheckedInterruptedException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public abstract class AbstractDistributedLock implements Serializable {
+
+	/*
+	 * 栈桢按持有者分开保存，同一个锁对象可以被多个线程 (包括大量虚拟线程) 共享。
+	 * 持有者默认为当前线程，也可以使用显式的 LockOwner 在不同线程之间传递锁。
+	 * 热路径上没有 synchronized，不会钉住虚拟线程。
+	 */
+
+	protected final RedisOperations<String, String> redisOperations;
+	protected final String lockKey;
+	protected final long ttlInSeconds;
+	private final RedisScript<Long> lockScript;
+	private final RedisScript<Boolean> unlockScript;
+	private final Map<String, LockStack> lockStacks = new ConcurrentHashMap<>();
+
+	protected AbstractDistributedLock(
+		RedisOperations<String, String> redisOperations,
+		String lockKey,
+		long ttlInSeconds,
+		RedisScript<Long> lockScript,
+		RedisScript<Boolean> unlockScript) {
+
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.hasText(lockKey, "lockKey is required");
+		Assert.isTrue(ttlInSeconds > 0, "ttlInSeconds must greater than 0");
+
+		this.redisOperations = redisOperations;
+		this.lockKey = lockKey;
+		this.ttlInSeconds = ttlInSeconds;
+		this.lockScript = lockScript;
+		this.unlockScript = unlockScript;
+	}
+
+	protected abstract String getLockField(LockOwner owner);
+
+	// 加锁脚本的参数，waiting 表示本次尝试来自阻塞等待而不是 tryLock()
+	protected Object[] getLockScriptArgs(String lockField, boolean waiting) {
+		return new Object[]{lockKey, lockField, String.valueOf(ttlInSeconds)};
+	}
+
+	// 阻塞等待因超时或中断而放弃时调用
+	protected void onWaitAbandoned(String lockField) {
+	}
+
+	// 栈桢的类型，决定看门狗使用哪个脚本续期
+	protected LockFrame.Type getFrameType() {
+		return LockFrame.Type.LOCK;
+	}
+
+	public boolean tryLock() {
+		return tryLock(LockOwner.current());
+	}
+
+	public boolean tryLock(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var acquired = attemptLock(getLockField(owner), false);
+		LockInstrumentation.getMetrics().recordTryLock(lockKey, acquired);
+		return acquired;
+	}
+
+	private boolean attemptLock(String lockField, boolean waiting) {
+		var now = System.currentTimeMillis();
+
+		var reentrantCount = RedisScriptRegistry.getInstance(redisOperations).execute(
+			lockScript,
+			List.of(),
+			getLockScriptArgs(lockField, waiting)
+		);
+
+		if (reentrantCount != null && reentrantCount >= 1) {
+			// 栈桢入栈并返回
+			var frame = new LockFrame(
+				now,
+				lockKey, lockField, ttlInSeconds,
+				reentrantCount,
+				CurrentThreadUtils.getId(), CurrentThreadUtils.getName(),
+				getFrameType()
+			);
+			lockStacks.computeIfAbsent(lockField, k -> new LockStack()).push(frame);
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	public void lock() {
+		lock(LockOwner.current());
+	}
+
+	public void lock(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var interrupted = false;
+
+		while (true) {
+			try {
+				acquire(getLockField(owner), -1L);
+				break;
+			} catch (InterruptedException e) {
+				// 与 java.util.concurrent.locks.Lock#lock() 一致，不响应中断，但保留中断标记
+				interrupted = true;
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public boolean lock(Duration timeout) {
+		return lock(LockOwner.current(), timeout);
+	}
+
+	public boolean lock(LockOwner owner, Duration timeout) {
+		Assert.notNull(owner, "owner is required");
+		Assert.notNull(timeout, "timeout is required");
+
+		try {
+			return acquire(getLockField(owner), Math.max(timeout.toNanos(), 0L));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedInterruptedException(e);
+		}
+	}
+
+	public void lockInterruptibly() throws InterruptedException {
+		lockInterruptibly(LockOwner.current());
+	}
+
+	public void lockInterruptibly(LockOwner owner) throws InterruptedException {
+		Assert.notNull(owner, "owner is required");
+		acquire(getLockField(owner), -1L);
+	}
+
+	private boolean acquire(String lockField, long timeoutInNanos) throws InterruptedException {
+		var start = System.nanoTime();
+		var acquired = false;
+		try {
+			acquired = LockAwaiter.await(redisOperations, lockKey, timeoutInNanos, this, () -> attemptLock(lockField, true));
+		} finally {
+			if (!acquired) {
+				onWaitAbandoned(lockField);
+			}
+		}
+		LockInstrumentation.getMetrics().recordAcquisition(lockKey, Duration.ofNanos(System.nanoTime() - start), acquired);
+		return acquired;
+	}
+
+	public boolean unlock() {
+		return unlock(LockOwner.current());
+	}
+
+	public boolean unlock(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var lockField = getLockField(owner);
+
+		var success = Boolean.TRUE.equals(RedisScriptRegistry.getInstance(redisOperations).execute(
+			unlockScript,
+			List.of(),
+			lockKey,
+			lockField,
+			LockReleaseNotifier.CHANNEL
+		));
+
+		if (success) {
+			var stack = lockStacks.get(lockField);
+			var frame = stack != null ? stack.pop() : null;
+
+			if (frame != null) {
+				LockWatchdog.getInstance(redisOperations).unwatch(frame);
+
+				if (stack.isEmpty()) {
+					lockStacks.remove(lockField, stack);
+				}
+
+				// 最外层的栈桢出栈时锁才真正释放
+				if (frame.getReentrantCount() == 1L) {
+					var holdTime = Duration.ofMillis(Math.max(0L, System.currentTimeMillis() - frame.getCreationTimestamp()));
+					LockInstrumentation.getMetrics().recordHold(frame, holdTime);
+				}
+			}
+		}
+
+		return success;
+	}
+
+	public void renewTtl() {
+		renewTtl(LockOwner.current());
+	}
+
+	public void renewTtl(LockOwner owner) {
+		var frame = getCurrentFrame(owner);
+		Assert.state(frame != null, "lock is not held");
+
+		// 由共享的看门狗周期续期，直到解锁为止
+		LockWatchdog.getInstance(redisOperations).watch(frame);
+	}
+
+	@Nullable
+	public LockFrame getCurrentFrame() {
+		return getCurrentFrame(LockOwner.current());
+	}
+
+	@Nullable
+	public LockFrame getCurrentFrame(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var stack = lockStacks.get(getLockField(owner));
+		return stack != null ? stack.peek() : null;
+	}
+
+	public boolean isHeldBy(LockOwner owner) {
+		return getCurrentFrame(owner) != null;
+	}
+
+}
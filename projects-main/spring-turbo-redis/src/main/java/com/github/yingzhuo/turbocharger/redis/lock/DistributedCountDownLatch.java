@@ -0,0 +1,77 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.concurrent.UncheckedInterruptedException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+
+public final class DistributedCountDownLatch implements Serializable {
+
+	/*
+	 * 计数保存在一个字符串键中，计数归零时删除该键并发布通知，唤醒等待的线程。
+	 * 键不存在即视为计数为0。
+	 */
+
+	private final RedisOperations<String, String> redisOperations;
+	private final String latchKey;
+
+	public DistributedCountDownLatch(RedisOperations<String, String> redisOperations, String latchKey) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.hasText(latchKey, "latchKey is required");
+
+		this.redisOperations = redisOperations;
+		this.latchKey = latchKey;
+	}
+
+	public boolean trySetCount(long count) {
+		return trySetCount(count, null);
+	}
+
+	// 计数未归零前不能重新设置，ttl 用于防止计数者全部宕机后键永远存在
+	public boolean trySetCount(long count, @Nullable Duration ttl) {
+		Assert.isTrue(count > 0, "count must greater than 0");
+
+		var valueOps = redisOperations.opsForValue();
+		var success = ttl != null ?
+			valueOps.setIfAbsent(latchKey, String.valueOf(count), ttl) :
+			valueOps.setIfAbsent(latchKey, String.valueOf(count));
+
+		return Boolean.TRUE.equals(success);
+	}
+
+	public long countDown() {
+		var remaining = RedisScriptRegistry.getInstance(redisOperations).execute(
+			LockScripts.LATCH_COUNT_DOWN,
+			List.of(),
+			latchKey,
+			LockReleaseNotifier.CHANNEL
+		);
+		return remaining != null ? remaining : 0L;
+	}
+
+	public long getCount() {
+		var value = redisOperations.opsForValue().get(latchKey);
+		return value != null ? Math.max(0L, Long.parseLong(value)) : 0L;
+	}
+
+	public void await() throws InterruptedException {
+		LockAwaiter.await(redisOperations, latchKey, -1L, this, () -> getCount() == 0L);
+	}
+
+	public boolean await(Duration timeout) {
+		Assert.notNull(timeout, "timeout is required");
+
+		try {
+			return LockAwaiter.await(redisOperations, latchKey, Math.max(timeout.toNanos(), 0L), this, () -> getCount() == 0L);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedInterruptedException(e);
+		}
+	}
+
+}
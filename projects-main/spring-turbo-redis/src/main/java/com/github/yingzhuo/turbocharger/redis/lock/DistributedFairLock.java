@@ -0,0 +1,69 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+
+public final class DistributedFairLock extends AbstractDistributedLock {
+
+	/*
+	 * 公平锁，按等待的先后顺序加锁。
+	 *
+	 * 1. 阻塞等待的线程进入 "键:queue" 队列，只有队首的线程可以在锁空闲时加锁，重入不受队列限制。
+	 * 2. 每次尝试都会刷新等待者的失效时间，等待者所在进程宕机后不再刷新，超过 waiterTimeout 即被移出队列。
+	 *    因为兜底的轮询间隔为1秒，waiterTimeout 不应小于数秒。
+	 * 3. tryLock() 不排队，只有锁空闲并且没有等待者时才能成功。
+	 * 4. 等待因超时或中断而放弃时主动出队。
+	 * 5. 锁的存储结构与 DistributedReentrantLock 相同，续期与解锁的脚本可以共用。
+	 */
+
+	private static final Duration DEFAULT_WAITER_TIMEOUT = Duration.ofSeconds(5L);
+
+	private final long waiterTimeoutInMillis;
+
+	public DistributedFairLock(RedisOperations<String, String> redisOperations, String lockKey, long ttlInSeconds) {
+		this(redisOperations, lockKey, ttlInSeconds, DEFAULT_WAITER_TIMEOUT);
+	}
+
+	public DistributedFairLock(RedisOperations<String, String> redisOperations, String lockKey, long ttlInSeconds, Duration waiterTimeout) {
+		super(redisOperations, lockKey, ttlInSeconds, LockScripts.FAIR_LOCK, LockScripts.UNLOCK);
+		Assert.notNull(waiterTimeout, "waiterTimeout is required");
+		Assert.isTrue(waiterTimeout.toMillis() >= 2000L, "waiterTimeout should >= 2s");
+		this.waiterTimeoutInMillis = waiterTimeout.toMillis();
+	}
+
+	@Override
+	protected String getLockField(LockOwner owner) {
+		return owner.getToken();
+	}
+
+	@Override
+	protected Object[] getLockScriptArgs(String lockField, boolean waiting) {
+		return new Object[]{
+			lockKey,
+			lockField,
+			String.valueOf(ttlInSeconds),
+			String.valueOf(waiterTimeoutInMillis),
+			waiting ? "1" : "0"
+		};
+	}
+
+	@Override
+	protected void onWaitAbandoned(String lockField) {
+		RedisScriptRegistry.getInstance(redisOperations).execute(
+			LockScripts.FAIR_CANCEL,
+			List.of(),
+			lockKey,
+			lockField,
+			LockReleaseNotifier.CHANNEL
+		);
+	}
+
+	public Duration getWaiterTimeout() {
+		return Duration.ofMillis(waiterTimeoutInMillis);
+	}
+
+}
@@ -0,0 +1,236 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.concurrent.CurrentThreadUtils;
+import com.github.yingzhuo.turbocharger.util.concurrent.UncheckedInterruptedException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class DistributedMultiLock implements Serializable {
+
+	/*
+	 * 同时锁定多个键，一次脚本调用完成，全部加锁或全部不加锁，不存在加锁顺序导致的死锁。
+	 *
+	 * 1. 键排序去重后作为脚本的 KEYS 传入，集群模式下所有键必须位于同一个 slot，可以使用 withHashTag(...) 生成键。
+	 * 2. 每个键的结构与 DistributedReentrantLock 相同，可以与之互斥，也可以重入。
+	 * 3. 每个键一个栈桢，续期时由看门狗在同一个 pipeline 中一起续期。
+	 */
+
+	private final RedisOperations<String, String> redisOperations;
+	private final List<String> lockKeys;
+	private final long ttlInSeconds;
+	private final String metricsKey;
+	private final Map<String, LockStack> lockStacks = new ConcurrentHashMap<>();
+
+	public DistributedMultiLock(RedisOperations<String, String> redisOperations, Collection<String> lockKeys, long ttlInSeconds) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.notEmpty(lockKeys, "lockKeys is required");
+		Assert.noNullElements(lockKeys, "lockKeys should not contain null element");
+		Assert.isTrue(ttlInSeconds > 0, "ttlInSeconds must greater than 0");
+
+		this.redisOperations = redisOperations;
+		this.lockKeys = List.copyOf(new TreeSet<>(lockKeys));
+		this.ttlInSeconds = ttlInSeconds;
+		this.metricsKey = String.join(",", this.lockKeys);
+	}
+
+	// 为每个键加上相同的 hash tag，使其在集群模式下位于同一个 slot
+	public static List<String> withHashTag(String hashTag, Collection<String> keys) {
+		Assert.hasText(hashTag, "hashTag is required");
+		Assert.notNull(keys, "keys is required");
+
+		var result = new ArrayList<String>(keys.size());
+		for (var key : keys) {
+			result.add("{" + hashTag + "}:" + key);
+		}
+		return result;
+	}
+
+	public boolean tryLock() {
+		return tryLock(LockOwner.current());
+	}
+
+	public boolean tryLock(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var acquired = attemptLock(owner.getToken());
+		LockInstrumentation.getMetrics().recordTryLock(metricsKey, acquired);
+		return acquired;
+	}
+
+	public void lock() {
+		lock(LockOwner.current());
+	}
+
+	public void lock(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var interrupted = false;
+
+		while (true) {
+			try {
+				acquire(owner.getToken(), -1L);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public boolean lock(Duration timeout) {
+		return lock(LockOwner.current(), timeout);
+	}
+
+	public boolean lock(LockOwner owner, Duration timeout) {
+		Assert.notNull(owner, "owner is required");
+		Assert.notNull(timeout, "timeout is required");
+
+		try {
+			return acquire(owner.getToken(), Math.max(timeout.toNanos(), 0L));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedInterruptedException(e);
+		}
+	}
+
+	public void lockInterruptibly() throws InterruptedException {
+		lockInterruptibly(LockOwner.current());
+	}
+
+	public void lockInterruptibly(LockOwner owner) throws InterruptedException {
+		Assert.notNull(owner, "owner is required");
+		acquire(owner.getToken(), -1L);
+	}
+
+	public boolean unlock() {
+		return unlock(LockOwner.current());
+	}
+
+	public boolean unlock(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var lockField = owner.getToken();
+
+		var success = Boolean.TRUE.equals(RedisScriptRegistry.getInstance(redisOperations).execute(
+			LockScripts.MULTI_UNLOCK,
+			lockKeys,
+			lockField,
+			LockReleaseNotifier.CHANNEL
+		));
+
+		if (success) {
+			var stack = lockStacks.get(lockField);
+			if (stack != null) {
+				var watchdog = LockWatchdog.getInstance(redisOperations);
+				var metrics = LockInstrumentation.getMetrics();
+				var now = System.currentTimeMillis();
+
+				for (int i = 0; i < lockKeys.size(); i++) {
+					var frame = stack.pop();
+					if (frame == null) {
+						break;
+					}
+					watchdog.unwatch(frame);
+					if (frame.getReentrantCount() == 1L) {
+						metrics.recordHold(frame, Duration.ofMillis(Math.max(0L, now - frame.getCreationTimestamp())));
+					}
+				}
+
+				if (stack.isEmpty()) {
+					lockStacks.remove(lockField, stack);
+				}
+			}
+		}
+
+		return success;
+	}
+
+	public void renewTtl() {
+		renewTtl(LockOwner.current());
+	}
+
+	public void renewTtl(LockOwner owner) {
+		var frames = getCurrentFrames(owner);
+		Assert.state(!frames.isEmpty(), "lock is not held");
+
+		// 同一时刻登记的栈桢到期时间相同，看门狗会在同一个 pipeline 中续期
+		var watchdog = LockWatchdog.getInstance(redisOperations);
+		for (var frame : frames) {
+			watchdog.watch(frame);
+		}
+	}
+
+	public List<LockFrame> getCurrentFrames() {
+		return getCurrentFrames(LockOwner.current());
+	}
+
+	// 最近一次加锁的栈桢，每个键一个
+	public List<LockFrame> getCurrentFrames(LockOwner owner) {
+		Assert.notNull(owner, "owner is required");
+
+		var stack = lockStacks.get(owner.getToken());
+		if (stack == null || stack.size() < lockKeys.size()) {
+			return List.of();
+		}
+
+		var frames = new ArrayList<LockFrame>(lockKeys.size());
+		var iterator = stack.iterator();
+		for (int i = 0; i < lockKeys.size(); i++) {
+			frames.add(iterator.next());
+		}
+		return frames;
+	}
+
+	public List<String> getLockKeys() {
+		return lockKeys;
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private boolean attemptLock(String lockField) {
+		var now = System.currentTimeMillis();
+
+		var reentrantCount = RedisScriptRegistry.getInstance(redisOperations).execute(
+			LockScripts.MULTI_LOCK,
+			lockKeys,
+			lockField,
+			String.valueOf(ttlInSeconds)
+		);
+
+		if (reentrantCount == null || reentrantCount < 1) {
+			return false;
+		}
+
+		var stack = lockStacks.computeIfAbsent(lockField, k -> new LockStack());
+		for (var lockKey : lockKeys) {
+			stack.push(new LockFrame(
+				now,
+				lockKey, lockField, ttlInSeconds,
+				reentrantCount,
+				CurrentThreadUtils.getId(), CurrentThreadUtils.getName()
+			));
+		}
+		return true;
+	}
+
+	private boolean acquire(String lockField, long timeoutInNanos) throws InterruptedException {
+		var start = System.nanoTime();
+		var acquired = LockAwaiter.await(redisOperations, lockKeys, timeoutInNanos, this, () -> attemptLock(lockField));
+		LockInstrumentation.getMetrics().recordAcquisition(metricsKey, Duration.ofNanos(System.nanoTime() - start), acquired);
+		return acquired;
+	}
+
+}
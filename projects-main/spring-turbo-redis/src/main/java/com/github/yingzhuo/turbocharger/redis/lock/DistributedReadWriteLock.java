@@ -0,0 +1,63 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.io.Serializable;
+
+public final class DistributedReadWriteLock implements Serializable {
+
+	/*
+	 * 读锁可以被多个持有者同时持有，写锁只能被一个持有者持有。
+	 * 读锁与写锁均可重入，持有写锁时可以再加读锁 (锁降级)，但持有读锁时不能再加写锁。
+	 * 每个读者在 "键:readers" (ZSET) 中有自己的租约，宕机读者的租约到期后会在下一次加锁/解锁时被清除，
+	 * 不会因为其他读者的续期而一直阻塞写者。
+	 */
+
+	private final ReadLock readLock;
+	private final WriteLock writeLock;
+
+	public DistributedReadWriteLock(RedisOperations<String, String> redisOperations, String lockKey, long ttlInSeconds) {
+		this.readLock = new ReadLock(redisOperations, lockKey, ttlInSeconds);
+		this.writeLock = new WriteLock(redisOperations, lockKey, ttlInSeconds);
+	}
+
+	public ReadLock readLock() {
+		return readLock;
+	}
+
+	public WriteLock writeLock() {
+		return writeLock;
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	public static final class ReadLock extends AbstractDistributedLock {
+
+		private ReadLock(RedisOperations<String, String> redisOperations, String lockKey, long ttlInSeconds) {
+			super(redisOperations, lockKey, ttlInSeconds, LockScripts.READ_LOCK, LockScripts.READ_UNLOCK);
+		}
+
+		@Override
+		protected String getLockField(LockOwner owner) {
+			return "r:" + owner.getToken();
+		}
+
+		@Override
+		protected LockFrame.Type getFrameType() {
+			return LockFrame.Type.READ_LOCK;
+		}
+	}
+
+	public static final class WriteLock extends AbstractDistributedLock {
+
+		private WriteLock(RedisOperations<String, String> redisOperations, String lockKey, long ttlInSeconds) {
+			super(redisOperations, lockKey, ttlInSeconds, LockScripts.WRITE_LOCK, LockScripts.WRITE_UNLOCK);
+		}
+
+		@Override
+		protected String getLockField(LockOwner owner) {
+			return "w:" + owner.getToken();
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import com.github.yingzhuo.turbocharger.util.concurrent.CurrentThreadUtils;
+import com.github.yingzhuo.turbocharger.util.concurrent.UncheckedInterruptedException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class DistributedSemaphore implements Serializable {
+
+	/*
+	 * 许可保存在一个 ZSET 中，每个已发放的许可是一个租约，score 为租约到期时间。
+	 * 取得的许可由看门狗自动续期，直到归还为止。持有者宕机后租约不再续期，到期后许可自动回收。
+	 * 归还许可时发布通知，唤醒等待的线程。
+	 */
+
+	private static final AtomicLong LEASE_SEQUENCE = new AtomicLong();
+
+	private final RedisOperations<String, String> redisOperations;
+	private final String semaphoreKey;
+	private final int permits;
+	private final long ttlInSeconds;
+
+	public DistributedSemaphore(RedisOperations<String, String> redisOperations, String semaphoreKey, int permits, long ttlInSeconds) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.hasText(semaphoreKey, "semaphoreKey is required");
+		Assert.isTrue(permits > 0, "permits must greater than 0");
+		Assert.isTrue(ttlInSeconds > 0, "ttlInSeconds must greater than 0");
+
+		this.redisOperations = redisOperations;
+		this.semaphoreKey = semaphoreKey;
+		this.permits = permits;
+		this.ttlInSeconds = ttlInSeconds;
+	}
+
+	@Nullable
+	public LockFrame tryAcquire() {
+		var now = System.currentTimeMillis();
+		var lease = CurrentThreadUtils.getTrait() + ":" + LEASE_SEQUENCE.incrementAndGet();
+
+		var success = Boolean.TRUE.equals(RedisScriptRegistry.getInstance(redisOperations).execute(
+			LockScripts.SEMAPHORE_ACQUIRE,
+			List.of(),
+			semaphoreKey,
+			lease,
+			String.valueOf(permits),
+			String.valueOf(ttlInSeconds)
+		));
+
+		if (!success) {
+			return null;
+		}
+
+		var frame = new LockFrame(
+			now,
+			semaphoreKey, lease, ttlInSeconds,
+			1L,
+			CurrentThreadUtils.getId(), CurrentThreadUtils.getName(),
+			LockFrame.Type.SEMAPHORE_PERMIT
+		);
+		LockWatchdog.getInstance(redisOperations).watch(frame);
+		return frame;
+	}
+
+	public LockFrame acquire() {
+		var interrupted = false;
+
+		try {
+			while (true) {
+				try {
+					return acquire(-1L);
+				} catch (InterruptedException e) {
+					// 与 java.util.concurrent.Semaphore#acquireUninterruptibly() 一致，保留中断标记
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Nullable
+	public LockFrame acquire(Duration timeout) {
+		Assert.notNull(timeout, "timeout is required");
+
+		try {
+			return acquire(Math.max(timeout.toNanos(), 0L));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedInterruptedException(e);
+		}
+	}
+
+	public LockFrame acquireInterruptibly() throws InterruptedException {
+		var frame = acquire(-1L);
+		Assert.state(frame != null, "permit is not acquired");
+		return frame;
+	}
+
+	public boolean release(LockFrame permit) {
+		Assert.notNull(permit, "permit is required");
+		Assert.isTrue(permit.getType() == LockFrame.Type.SEMAPHORE_PERMIT && permit.getLockKey().equals(semaphoreKey), "not a permit of this semaphore");
+
+		LockWatchdog.getInstance(redisOperations).unwatch(permit);
+
+		var released = Boolean.TRUE.equals(RedisScriptRegistry.getInstance(redisOperations).execute(
+			LockScripts.SEMAPHORE_RELEASE,
+			List.of(),
+			semaphoreKey,
+			permit.getLockField(),
+			LockReleaseNotifier.CHANNEL
+		));
+
+		if (released) {
+			var holdTime = Duration.ofMillis(Math.max(0L, System.currentTimeMillis() - permit.getCreationTimestamp()));
+			LockInstrumentation.getMetrics().recordHold(permit, holdTime);
+		}
+		return released;
+	}
+
+	public int availablePermits() {
+		// 以本地时钟估算，仅供参考
+		var used = redisOperations.opsForZSet().count(semaphoreKey, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+		return (int) Math.max(0L, permits - (used != null ? used : 0L));
+	}
+
+	public int getPermits() {
+		return permits;
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	@Nullable
+	private LockFrame acquire(long timeoutInNanos) throws InterruptedException {
+		var start = System.nanoTime();
+		var holder = new LockFrame[1];
+		var acquired = LockAwaiter.await(redisOperations, semaphoreKey, timeoutInNanos, this, () -> (holder[0] = tryAcquire()) != null);
+		LockInstrumentation.getMetrics().recordAcquisition(semaphoreKey, Duration.ofNanos(System.nanoTime() - start), acquired);
+		return holder[0];
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+final class LockAwaiter {
+
+	// 兜底轮询间隔，防止错过释放通知 (比如持有者宕机后锁自然过期)
+	private static final long SUBSCRIBED_POLL_INTERVAL_IN_NANOS = TimeUnit.SECONDS.toNanos(1L);
+	private static final long UNSUBSCRIBED_POLL_INTERVAL_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+	private LockAwaiter() {
+		super();
+	}
+
+	// 反复尝试直到成功、超时或被中断，每次收到该键的释放通知后立即重试。timeoutInNanos 小于0时不会超时，等于0时只尝试一次
+	static boolean await(RedisOperations<String, String> redisOperations, String key, long timeoutInNanos, Object blocker, BooleanSupplier attempt)
+		throws InterruptedException {
+		return await(redisOperations, List.of(key), timeoutInNanos, blocker, attempt);
+	}
+
+	// 同上，收到任意一个键的释放通知后立即重试
+	static boolean await(RedisOperations<String, String> redisOperations, List<String> keys, long timeoutInNanos, Object blocker, BooleanSupplier attempt)
+		throws InterruptedException {
+
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+
+		if (attempt.getAsBoolean()) {
+			return true;
+		}
+
+		if (timeoutInNanos == 0L) {
+			return false;
+		}
+
+		var notifier = LockReleaseNotifier.getInstance(redisOperations);
+		var pollInterval = notifier.isSubscribed() ? SUBSCRIBED_POLL_INTERVAL_IN_NANOS : UNSUBSCRIBED_POLL_INTERVAL_IN_NANOS;
+		var deadline = System.nanoTime() + timeoutInNanos;
+		var currentThread = Thread.currentThread();
+
+		// 先登记再重试，避免在两次尝试之间错过释放通知
+		for (var key : keys) {
+			notifier.addWaiter(key, currentThread);
+		}
+		try {
+			while (true) {
+				if (attempt.getAsBoolean()) {
+					return true;
+				}
+
+				var parkNanos = pollInterval;
+				if (timeoutInNanos > 0L) {
+					var remaining = deadline - System.nanoTime();
+					if (remaining <= 0L) {
+						return false;
+					}
+					parkNanos = Math.min(parkNanos, remaining);
+				}
+
+				LockSupport.parkNanos(blocker, parkNanos);
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			for (var key : keys) {
+				notifier.removeWaiter(key, currentThread);
+			}
+		}
+	}
+
+}
@@ -2,13 +2,10 @@
 
 import com.github.yingzhuo.turbocharger.util.time.LocalDateTimeUtils;
 import lombok.Getter;
-import org.jspecify.annotations.Nullable;
 import org.springframework.core.style.ToStringCreator;
 
 import java.io.Serializable;
 import java.time.format.DateTimeFormatter;
-import java.util.Optional;
-import java.util.Timer;
 
 public final class LockFrame implements Serializable {
 
@@ -35,12 +32,16 @@ public final class LockFrame implements Serializable {
 	@Getter
 	private final String threadName;
 
-	@Nullable
-	private Timer timer = null;
+	@Getter
+	private final Type type;
 
 	// -----------------------------------------------------------------------------------------------------------------
 
 	public LockFrame(long creationTimestamp, String lockKey, String lockField, long ttlInSeconds, long reentrantCount, long threadId, String threadName) {
+		this(creationTimestamp, lockKey, lockField, ttlInSeconds, reentrantCount, threadId, threadName, Type.LOCK);
+	}
+
+	public LockFrame(long creationTimestamp, String lockKey, String lockField, long ttlInSeconds, long reentrantCount, long threadId, String threadName, Type type) {
 		this.creationTimestamp = creationTimestamp;
 		this.lockKey = lockKey;
 		this.lockField = lockField;
@@ -48,18 +49,9 @@ public LockFrame(long creationTimestamp, String lockKey, String lockField, long
 		this.reentrantCount = reentrantCount;
 		this.threadId = threadId;
 		this.threadName = threadName;
+		this.type = type;
 	}
 
-	Optional<Timer> getNullableTimer() {
-		return Optional.ofNullable(timer);
-	}
-
-	void setTimer(Timer timer) {
-		this.timer = timer;
-	}
-
-	// -----------------------------------------------------------------------------------------------------------------
-
 	@Override
 	public String toString() {
 		return new ToStringCreator(this)
@@ -70,7 +62,17 @@ public String toString() {
 			.append("reentrant-count", reentrantCount)
 			.append("thread-id", threadId)
 			.append("thread-name", threadName)
+			.append("type", type)
 			.toString();
 	}
 
+	// -----------------------------------------------------------------------------------------------------------------
+
+	// 决定看门狗使用哪个脚本续期
+	public enum Type {
+		LOCK,
+		READ_LOCK,
+		SEMAPHORE_PERMIT
+	}
+
 }
@@ -0,0 +1,21 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import org.jspecify.annotations.Nullable;
+
+public final class LockInstrumentation {
+
+	private static volatile LockMetrics metrics = LockMetrics.NOOP;
+
+	private LockInstrumentation() {
+		super();
+	}
+
+	public static LockMetrics getMetrics() {
+		return metrics;
+	}
+
+	public static void setMetrics(@Nullable LockMetrics lockMetrics) {
+		metrics = lockMetrics != null ? lockMetrics : LockMetrics.NOOP;
+	}
+
+}
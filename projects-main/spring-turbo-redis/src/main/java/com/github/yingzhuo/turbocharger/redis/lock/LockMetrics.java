@@ -0,0 +1,67 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface LockMetrics {
+
+	// 默认实现，什么也不做
+	public static final LockMetrics NOOP = new LockMetrics() {
+	};
+
+	public static LockMetrics composite(List<? extends LockMetrics> metrics) {
+		var list = List.copyOf(metrics);
+		if (list.isEmpty()) {
+			return NOOP;
+		}
+		if (list.size() == 1) {
+			return list.get(0);
+		}
+
+		return new LockMetrics() {
+			@Override
+			public void recordAcquisition(String lockKey, Duration latency, boolean acquired) {
+				list.forEach(m -> m.recordAcquisition(lockKey, latency, acquired));
+			}
+
+			@Override
+			public void recordTryLock(String lockKey, boolean acquired) {
+				list.forEach(m -> m.recordTryLock(lockKey, acquired));
+			}
+
+			@Override
+			public void recordHold(LockFrame frame, Duration holdTime) {
+				list.forEach(m -> m.recordHold(frame, holdTime));
+			}
+
+			@Override
+			public void recordRenewal(String lockKey) {
+				list.forEach(m -> m.recordRenewal(lockKey));
+			}
+
+			@Override
+			public void recordLeaseExpiry(String lockKey) {
+				list.forEach(m -> m.recordLeaseExpiry(lockKey));
+			}
+		};
+	}
+
+	// 阻塞获取 (lock/acquire) 的等待时间，acquired 为 false 表示超时
+	public default void recordAcquisition(String lockKey, Duration latency, boolean acquired) {
+	}
+
+	public default void recordTryLock(String lockKey, boolean acquired) {
+	}
+
+	// 从 LockFrame#creationTimestamp 到释放的时间
+	public default void recordHold(LockFrame frame, Duration holdTime) {
+	}
+
+	public default void recordRenewal(String lockKey) {
+	}
+
+	// 看门狗续期失败，锁或许可已经过期或已不属于持有者
+	public default void recordLeaseExpiry(String lockKey) {
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.util.concurrent.CurrentThreadUtils;
+import com.github.yingzhuo.turbocharger.util.id.UUIDs;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+
+public final class LockOwner implements Serializable {
+
+	/*
+	 * 锁的持有者。默认以当前线程为持有者，
+	 * 需要在一个线程加锁、在另一个线程 (比如 CompletableFuture 的后续阶段) 解锁时，使用 create() 生成显式的令牌并随任务传递。
+	 * 同一个令牌不应被多个线程同时使用。
+	 */
+
+	private final String token;
+
+	private LockOwner(String token) {
+		this.token = token;
+	}
+
+	public static LockOwner current() {
+		return new LockOwner(CurrentThreadUtils.getTrait());
+	}
+
+	public static LockOwner create() {
+		return new LockOwner("t:" + UUIDs.classic32());
+	}
+
+	public static LockOwner of(String token) {
+		Assert.hasText(token, "token is required");
+		return new LockOwner(token);
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof LockOwner other && token.equals(other.token);
+	}
+
+	@Override
+	public int hashCode() {
+		return token.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return token;
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import com.github.yingzhuo.turbocharger.redis.util.RedisSubscription;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+final class LockReleaseNotifier implements MessageListener {
+
+	/*
+	 * 同一个 RedisOperations 只订阅一个频道。锁完全释放时解锁脚本把锁的键发布到此频道，
+	 * 本类按键唤醒本节点上所有等待该锁的线程。
+	 * 如果无法取得连接工厂，则不订阅，等待的线程只能依靠兜底的轮询。
+	 */
+
+	static final String CHANNEL = "turbocharger:lock:released";
+
+	private static final Map<RedisOperations<String, String>, LockReleaseNotifier> INSTANCES = new ConcurrentHashMap<>();
+
+	private final Map<String, Set<Thread>> waiters = new ConcurrentHashMap<>();
+	private final RedisSerializer<?> valueSerializer;
+	private final RedisSubscription subscription;
+
+	@SuppressWarnings("unchecked")
+	private LockReleaseNotifier(RedisOperations<String, String> redisOperations) {
+		this.valueSerializer = redisOperations.getValueSerializer();
+		this.subscription = RedisSubscription.subscribe(redisOperations, this, new ChannelTopic(CHANNEL), (RedisSerializer<String>) valueSerializer);
+	}
+
+	static LockReleaseNotifier getInstance(RedisOperations<String, String> redisOperations) {
+		var notifier = INSTANCES.get(redisOperations);
+		if (notifier != null && !notifier.subscription.isClosed()) {
+			return notifier;
+		}
+		// 订阅已被关闭 (比如应用上下文重启) 时重新创建
+		return INSTANCES.compute(redisOperations, (k, v) -> v != null && !v.subscription.isClosed() ? v : new LockReleaseNotifier(k));
+	}
+
+	// 在 compute 中加入，避免并发的 removeWaiter 把刚取到的空集合移除
+	void addWaiter(String lockKey, Thread thread) {
+		waiters.compute(lockKey, (k, threads) -> {
+			if (threads == null) {
+				threads = ConcurrentHashMap.newKeySet();
+			}
+			threads.add(thread);
+			return threads;
+		});
+	}
+
+	void removeWaiter(String lockKey, Thread thread) {
+		waiters.computeIfPresent(lockKey, (k, threads) -> {
+			threads.remove(thread);
+			return threads.isEmpty() ? null : threads;
+		});
+	}
+
+	boolean isSubscribed() {
+		return subscription.isSubscribed();
+	}
+
+	@Override
+	public void onMessage(Message message, byte @Nullable [] pattern) {
+		var lockKey = valueSerializer.deserialize(message.getBody());
+		if (lockKey == null) {
+			return;
+		}
+
+		var threads = waiters.get(lockKey.toString());
+		if (threads != null) {
+			threads.forEach(LockSupport::unpark);
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+public final class LockScripts {
+
+	public static final RedisScript<Long> LOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#lock.lua"), Long.class);
+
+	public static final RedisScript<Boolean> UNLOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#unlock.lua"), Boolean.class);
+
+	public static final RedisScript<Boolean> RENEW_TTL =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#renew-ttl.lua"), Boolean.class);
+
+	public static final RedisScript<Long> READ_LOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#read-lock.lua"), Long.class);
+
+	public static final RedisScript<Boolean> READ_UNLOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#read-unlock.lua"), Boolean.class);
+
+	public static final RedisScript<Boolean> READ_RENEW =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#read-renew.lua"), Boolean.class);
+
+	public static final RedisScript<Long> WRITE_LOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#write-lock.lua"), Long.class);
+
+	public static final RedisScript<Boolean> WRITE_UNLOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#write-unlock.lua"), Boolean.class);
+
+	public static final RedisScript<Boolean> SEMAPHORE_ACQUIRE =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#semaphore-acquire.lua"), Boolean.class);
+
+	public static final RedisScript<Boolean> SEMAPHORE_RELEASE =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#semaphore-release.lua"), Boolean.class);
+
+	public static final RedisScript<Boolean> SEMAPHORE_RENEW =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#semaphore-renew.lua"), Boolean.class);
+
+	public static final RedisScript<Long> LATCH_COUNT_DOWN =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#latch-count-down.lua"), Long.class);
+
+	public static final RedisScript<Long> FAIR_LOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#fair-lock.lua"), Long.class);
+
+	public static final RedisScript<Boolean> FAIR_CANCEL =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#fair-cancel.lua"), Boolean.class);
+
+	public static final RedisScript<Long> MULTI_LOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#multi-lock.lua"), Long.class);
+
+	public static final RedisScript<Boolean> MULTI_UNLOCK =
+		RedisScript.of(new ClassPathResource("META-INF/Lock#multi-unlock.lua"), Boolean.class);
+
+	private LockScripts() {
+		super();
+	}
+
+	public static List<RedisScript<?>> all() {
+		return List.of(
+			LOCK,
+			UNLOCK,
+			RENEW_TTL,
+			READ_LOCK,
+			READ_UNLOCK,
+			READ_RENEW,
+			WRITE_LOCK,
+			WRITE_UNLOCK,
+			SEMAPHORE_ACQUIRE,
+			SEMAPHORE_RELEASE,
+			SEMAPHORE_RENEW,
+			LATCH_COUNT_DOWN,
+			FAIR_LOCK,
+			FAIR_CANCEL,
+			MULTI_LOCK,
+			MULTI_UNLOCK
+		);
+	}
+
+}
@@ -3,11 +3,17 @@
 import org.jspecify.annotations.Nullable;
 
 import java.io.Serializable;
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 
 public final class LockStack implements Serializable {
 
-	private final Stack<LockFrame> frames = new Stack<>();
+	/*
+	 * 单个持有者的栈桢，同一时刻只被一个线程访问，所以不做同步 (java.util.Stack 的 synchronized 会钉住虚拟线程)。
+	 * 不同持有者之间的隔离由 AbstractDistributedLock 负责。
+	 */
+
+	private final ArrayDeque<LockFrame> frames = new ArrayDeque<>();
 
 	public LockStack() {
 		super();
@@ -19,16 +25,25 @@ public void push(LockFrame lockFrame) {
 
 	@Nullable
 	public LockFrame pop() {
-		return isEmpty() ? null : frames.pop();
+		return frames.pollFirst();
 	}
 
 	@Nullable
 	public LockFrame peek() {
-		return isEmpty() ? null : frames.peek();
+		return frames.peekFirst();
 	}
 
 	public boolean isEmpty() {
 		return frames.isEmpty();
 	}
 
+	public int size() {
+		return frames.size();
+	}
+
+	// 从栈顶到栈底
+	public Iterator<LockFrame> iterator() {
+		return frames.iterator();
+	}
+
 }
@@ -0,0 +1,64 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class LockWatchdog {
+
+	/*
+	 * 同一个 RedisOperations 共享一个看门狗 (一个后台线程)。
+	 * 每个周期把所有到期的锁续期请求合并成一次 pipeline 发送。
+	 */
+
+	private static final long DEFAULT_TICK_IN_MILLIS = 500L;
+
+	private static final Map<RedisOperations<String, String>, LockWatchdog> INSTANCES = new ConcurrentHashMap<>();
+
+	private final Map<LockFrame, Long> watchedFrames = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler;
+
+	private LockWatchdog(RedisOperations<String, String> redisOperations) {
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			var thread = new Thread(runnable, "distributed-lock-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		this.scheduler.scheduleWithFixedDelay(
+			new RenewTask(redisOperations, watchedFrames, DEFAULT_TICK_IN_MILLIS),
+			DEFAULT_TICK_IN_MILLIS,
+			DEFAULT_TICK_IN_MILLIS,
+			TimeUnit.MILLISECONDS
+		);
+	}
+
+	public static LockWatchdog getInstance(RedisOperations<String, String> redisOperations) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		return INSTANCES.computeIfAbsent(redisOperations, LockWatchdog::new);
+	}
+
+	public void watch(LockFrame frame) {
+		Assert.notNull(frame, "frame is required");
+		watchedFrames.putIfAbsent(frame, RenewTask.nextRenewalTime(frame, DEFAULT_TICK_IN_MILLIS));
+	}
+
+	public void unwatch(LockFrame frame) {
+		Assert.notNull(frame, "frame is required");
+		watchedFrames.remove(frame);
+	}
+
+	public boolean isWatching(LockFrame frame) {
+		return watchedFrames.containsKey(frame);
+	}
+
+	public int getWatchedCount() {
+		return watchedFrames.size();
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+public class MicrometerLockMetrics implements LockMetrics {
+
+	/*
+	 * 锁的键作为 tag 之前先归纳为模式，避免 tag 的基数失控。
+	 * 默认把键中的数字串替换为 "*"，比如 "order:123:lock" 归纳为 "order:*:lock"。
+	 * 归纳的结果与注册好的 Timer/Counter 都会被缓存，热路径上只有 Map 查找。
+	 * 锁的键本身的基数可能很大，只缓存前 MAX_CACHED_KEYS 个键的归纳结果，之后的键每次重新归纳。
+	 */
+
+	private static final Pattern DIGITS = Pattern.compile("\\d+");
+	private static final int MAX_CACHED_KEYS = 10_000;
+
+	private final MeterRegistry registry;
+	private final Function<String, String> keyPatternResolver;
+	private final Map<String, String> keyPatterns = new ConcurrentHashMap<>();
+	private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+	private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+	public MicrometerLockMetrics(MeterRegistry registry) {
+		this(registry, key -> DIGITS.matcher(key).replaceAll("*"));
+	}
+
+	public MicrometerLockMetrics(MeterRegistry registry, Function<String, String> keyPatternResolver) {
+		Assert.notNull(registry, "registry is required");
+		Assert.notNull(keyPatternResolver, "keyPatternResolver is required");
+
+		this.registry = registry;
+		this.keyPatternResolver = keyPatternResolver;
+	}
+
+	@Override
+	public void recordAcquisition(String lockKey, Duration latency, boolean acquired) {
+		timer("turbocharger.lock.acquisition", lockKey, "result", acquired ? "acquired" : "timeout").record(latency);
+	}
+
+	@Override
+	public void recordTryLock(String lockKey, boolean acquired) {
+		counter("turbocharger.lock.try", lockKey, "result", acquired ? "acquired" : "failed").increment();
+	}
+
+	@Override
+	public void recordHold(LockFrame frame, Duration holdTime) {
+		timer("turbocharger.lock.hold", frame.getLockKey(), "type", frame.getType().name().toLowerCase(Locale.ROOT)).record(holdTime);
+	}
+
+	@Override
+	public void recordRenewal(String lockKey) {
+		counter("turbocharger.lock.renewal", lockKey, null, null).increment();
+	}
+
+	@Override
+	public void recordLeaseExpiry(String lockKey) {
+		counter("turbocharger.lock.lease.expiry", lockKey, null, null).increment();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private String keyPatternOf(String lockKey) {
+		var pattern = keyPatterns.get(lockKey);
+		if (pattern == null) {
+			pattern = keyPatternResolver.apply(lockKey);
+			if (keyPatterns.size() < MAX_CACHED_KEYS) {
+				keyPatterns.putIfAbsent(lockKey, pattern);
+			}
+		}
+		return pattern;
+	}
+
+	private Timer timer(String name, String lockKey, String tagKey, String tagValue) {
+		var pattern = keyPatternOf(lockKey);
+		return timers.computeIfAbsent(new MeterKey(name, pattern, tagValue), k ->
+			Timer.builder(name)
+				.tag("lock", pattern)
+				.tag(tagKey, tagValue)
+				.register(registry)
+		);
+	}
+
+	private Counter counter(String name, String lockKey, @Nullable String tagKey, @Nullable String tagValue) {
+		var pattern = keyPatternOf(lockKey);
+		return counters.computeIfAbsent(new MeterKey(name, pattern, tagValue), k -> {
+			var builder = Counter.builder(name).tag("lock", pattern);
+			if (tagKey != null && tagValue != null) {
+				builder.tag(tagKey, tagValue);
+			}
+			return builder.register(registry);
+		});
+	}
+
+	// 同一个指标名下 tag 的键是固定的，只需以 tag 的值区分
+	private record MeterKey(String name, String lock, @Nullable String tag) {
+	}
+
+}
@@ -1,39 +1,120 @@
 package com.github.yingzhuo.turbocharger.redis.lock;
 
-import org.springframework.core.io.ClassPathResource;
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisOperations;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.script.RedisScript;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.TimerTask;
+import java.util.Map;
 
-final class RenewTask extends TimerTask {
-
-	private static final RedisScript<Boolean> RENEW_TTL =
-		RedisScript.of(new ClassPathResource("META-INF/Lock#renew-ttl.lua"), Boolean.class);
+final class RenewTask implements Runnable {
 
 	private final RedisOperations<String, String> redisOperations;
-	private final String key;
-	private final String field;
-	private final long ttl;
+	private final Map<LockFrame, Long> watchedFrames;
+	private final long tickInMillis;
 
-	public RenewTask(RedisOperations<String, String> redisOperations, String key, String field, long ttl) {
+	public RenewTask(RedisOperations<String, String> redisOperations, Map<LockFrame, Long> watchedFrames, long tickInMillis) {
 		this.redisOperations = redisOperations;
-		this.key = key;
-		this.field = field;
-		this.ttl = ttl;
+		this.watchedFrames = watchedFrames;
+		this.tickInMillis = tickInMillis;
+	}
+
+	static long nextRenewalTime(LockFrame frame, long tickInMillis) {
+		// 每过三分之一个TTL续期一次，但不会比看门狗的周期更频繁
+		var interval = Math.max(frame.getTtlInSeconds() * 1000 / 3, tickInMillis);
+		return System.currentTimeMillis() + interval;
 	}
 
 	@Override
 	public void run() {
-		redisOperations.execute(
-			RENEW_TTL,
-			List.of(),
-			key,
-			field,
-			String.valueOf(ttl)
-		);
+		try {
+			renewDueFrames();
+		} catch (RuntimeException e) {
+			// 本周期续期失败，下个周期重试
+			if (RedisScriptRegistry.isNoScriptError(e)) {
+				RedisScriptRegistry.getInstance(redisOperations).reset();
+			}
+		}
+	}
+
+	private void renewDueFrames() {
+		var now = System.currentTimeMillis();
+
+		// 同一把锁的重入栈桢共用一个 HASH field，只需续期一次
+		var dueFrames = new LinkedHashMap<String, List<LockFrame>>();
+		watchedFrames.forEach((frame, dueTime) -> {
+			if (dueTime <= now) {
+				dueFrames.computeIfAbsent(frame.getLockKey() + '\n' + frame.getLockField(), k -> new ArrayList<>(1))
+					.add(frame);
+			}
+		});
+
+		if (dueFrames.isEmpty()) {
+			return;
+		}
+
+		var leases = new ArrayList<>(dueFrames.values());
+		var scriptRegistry = RedisScriptRegistry.getInstance(redisOperations);
+		var results = redisOperations.executePipelined(new SessionCallback<>() {
+			@Override
+			public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				for (var frames : leases) {
+					var frame = frames.get(0);
+					scriptRegistry.execute(
+						getRenewScript(frame.getType()),
+						List.of(),
+						frame.getLockKey(),
+						frame.getLockField(),
+						String.valueOf(frame.getTtlInSeconds())
+					);
+				}
+				return null;
+			}
+		});
+
+		var metrics = LockInstrumentation.getMetrics();
+		for (int i = 0; i < leases.size(); i++) {
+			var renewed = i < results.size() && isSuccess(results.get(i));
+			var lockKey = leases.get(i).get(0).getLockKey();
+			if (renewed) {
+				metrics.recordRenewal(lockKey);
+			} else {
+				metrics.recordLeaseExpiry(lockKey);
+			}
+
+			for (var frame : leases.get(i)) {
+				if (renewed) {
+					watchedFrames.replace(frame, nextRenewalTime(frame, tickInMillis));
+				} else {
+					// 锁已经过期或已不属于持有者，停止续期
+					watchedFrames.remove(frame);
+				}
+			}
+		}
+	}
+
+	private boolean isSuccess(@Nullable Object result) {
+		if (result instanceof Boolean b) {
+			return b;
+		}
+		if (result instanceof Number n) {
+			return n.longValue() == 1L;
+		}
+		return false;
+	}
+
+	private static RedisScript<Boolean> getRenewScript(LockFrame.Type type) {
+		return switch (type) {
+			case LOCK -> LockScripts.RENEW_TTL;
+			// 读锁需同时延长该读者自己的租约
+			case READ_LOCK -> LockScripts.READ_RENEW;
+			case SEMAPHORE_PERMIT -> LockScripts.SEMAPHORE_RENEW;
+		};
 	}
 
 }
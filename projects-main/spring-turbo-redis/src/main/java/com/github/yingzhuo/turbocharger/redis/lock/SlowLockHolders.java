@@ -0,0 +1,101 @@
+package com.github.yingzhuo.turbocharger.redis.lock;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class SlowLockHolders implements LockMetrics {
+
+	/*
+	 * 只保留持有时间最长的 capacity 个持有者 (不短于阈值)。
+	 * 以持有时间为序的小顶堆，写满后新的记录只有比堆顶更慢时才替换堆顶。
+	 * 堆顶的持有时间另存在 volatile 字段中，不够慢的记录不必加锁即可丢弃。
+	 */
+
+	private final int capacity;
+	private final PriorityQueue<Holder> heap;
+	private final Duration threshold;
+	private volatile long minimumNanos = -1L;
+
+	public SlowLockHolders(int capacity, Duration threshold) {
+		Assert.isTrue(capacity > 0, "capacity should > 0");
+		Assert.notNull(threshold, "threshold is required");
+
+		this.capacity = capacity;
+		this.heap = new PriorityQueue<>(capacity, Comparator.comparing(Holder::holdTime));
+		this.threshold = threshold;
+	}
+
+	@Override
+	public void recordHold(LockFrame frame, Duration holdTime) {
+		if (holdTime.compareTo(threshold) < 0) {
+			return;
+		}
+
+		var holdNanos = holdTime.toNanos();
+		if (holdNanos <= minimumNanos) {
+			return;
+		}
+
+		var holder = new Holder(
+			frame.getLockKey(),
+			frame.getLockField(),
+			frame.getType(),
+			frame.getThreadId(),
+			frame.getThreadName(),
+			Instant.ofEpochMilli(frame.getCreationTimestamp()),
+			holdTime
+		);
+
+		synchronized (heap) {
+			if (heap.size() < capacity) {
+				heap.offer(holder);
+			} else if (holdTime.compareTo(heap.peek().holdTime()) > 0) {
+				heap.poll();
+				heap.offer(holder);
+			} else {
+				return;
+			}
+
+			// 写满之前不能丢弃任何记录
+			minimumNanos = heap.size() < capacity ? -1L : heap.peek().holdTime().toNanos();
+		}
+	}
+
+	// 按持有时间从长到短排列
+	public List<Holder> getSlowestHolders() {
+		List<Holder> list;
+		synchronized (heap) {
+			list = new ArrayList<>(heap);
+		}
+		list.sort(Comparator.comparing(Holder::holdTime).reversed());
+		return list;
+	}
+
+	public Duration getThreshold() {
+		return threshold;
+	}
+
+	public void clear() {
+		synchronized (heap) {
+			heap.clear();
+			minimumNanos = -1L;
+		}
+	}
+
+	public record Holder(
+		String lockKey,
+		String lockField,
+		LockFrame.Type type,
+		long threadId,
+		String threadName,
+		Instant acquiredAt,
+		Duration holdTime) {
+	}
+
+}
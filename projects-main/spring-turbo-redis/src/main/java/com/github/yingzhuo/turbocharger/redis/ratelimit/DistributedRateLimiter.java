@@ -0,0 +1,176 @@
+package com.github.yingzhuo.turbocharger.redis.ratelimit;
+
+import com.github.yingzhuo.turbocharger.redis.script.RedisScriptRegistry;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class DistributedRateLimiter {
+
+	/*
+	 * 每个周期 (period) 最多发放 permits 个许可，所有节点共享同一个键。
+	 *
+	 * prefetch 大于1时，本节点一次从 redis 租借最多 prefetch 个许可放在本地，用完之前不再访问 redis。
+	 * 租借的许可只在 period/10 内有效，过期未用完的直接作废，
+	 * 所以任意时刻全局的超发量不超过 节点数 * prefetch。
+	 *
+	 * 注意: redis 按租借的时刻记录许可，而许可实际在之后的 period/10 内才被使用。
+	 * 对于 SLIDING_WINDOW_LOG，按实际使用的时刻统计，任意一个长度为 period 的窗口内使用的许可可能超过 permits，
+	 * 超出的部分同样不超过 节点数 * prefetch。需要严格限制时请使用 prefetch = 1。
+	 */
+
+	private static final int SWEEP_INTERVAL = 1024;
+
+	private final RedisOperations<String, String> redisOperations;
+	private final RateLimitAlgorithm algorithm;
+	private final long permits;
+	private final long periodInMillis;
+	private final int prefetch;
+	private final long leaseInNanos;
+	private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+	private final AtomicInteger operationCount = new AtomicInteger();
+
+	public DistributedRateLimiter(RedisOperations<String, String> redisOperations, RateLimitAlgorithm algorithm, long permits, Duration period) {
+		this(redisOperations, algorithm, permits, period, 1);
+	}
+
+	public DistributedRateLimiter(RedisOperations<String, String> redisOperations, RateLimitAlgorithm algorithm, long permits, Duration period, int prefetch) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.notNull(algorithm, "algorithm is required");
+		Assert.isTrue(permits > 0, "permits should > 0");
+		Assert.notNull(period, "period is required");
+		Assert.isTrue(period.toMillis() > 0, "period should >= 1ms");
+		Assert.isTrue(prefetch > 0, "prefetch should > 0");
+
+		this.redisOperations = redisOperations;
+		this.algorithm = algorithm;
+		this.permits = permits;
+		this.periodInMillis = period.toMillis();
+		this.prefetch = (int) Math.min(prefetch, permits);
+		this.leaseInNanos = period.toNanos() / 10;
+	}
+
+	public boolean tryAcquire(String key) {
+		Assert.hasText(key, "key is required");
+
+		if (prefetch == 1) {
+			return acquireRemotely(key, 1) > 0;
+		}
+
+		sweepIfNecessary();
+
+		// 先消耗本地租借的许可
+		var lease = leases.get(key);
+		if (lease != null && lease.tryTake()) {
+			return true;
+		}
+
+		var granted = acquireRemotely(key, prefetch);
+		if (granted <= 0) {
+			return false;
+		}
+
+		if (granted > 1) {
+			// 并发时其他线程可能已经放入了新的租约，合并剩余的许可而不是覆盖
+			var now = System.nanoTime();
+			leases.merge(key, new Lease(granted - 1, now + leaseInNanos), (current, fresh) ->
+				current.isExpired(now) ? fresh : new Lease(current.drain() + fresh.remaining.get(), fresh.deadline)
+			);
+		}
+		return true;
+	}
+
+	public RateLimitAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	public long getPermits() {
+		return permits;
+	}
+
+	public Duration getPeriod() {
+		return Duration.ofMillis(periodInMillis);
+	}
+
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private long acquireRemotely(String key, int requested) {
+		var scriptRegistry = RedisScriptRegistry.getInstance(redisOperations);
+
+		Long granted;
+		if (algorithm == RateLimitAlgorithm.TOKEN_BUCKET) {
+			granted = scriptRegistry.execute(
+				RateLimiterScripts.TOKEN_BUCKET,
+				List.of(key),
+				String.valueOf(permits),
+				String.valueOf(periodInMillis),
+				String.valueOf(requested)
+			);
+		} else {
+			granted = scriptRegistry.execute(
+				RateLimiterScripts.SLIDING_WINDOW_LOG,
+				List.of(key),
+				String.valueOf(permits),
+				String.valueOf(periodInMillis),
+				String.valueOf(requested),
+				Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(System.nanoTime())
+			);
+		}
+		return granted != null ? granted : 0L;
+	}
+
+	private void sweepIfNecessary() {
+		if (operationCount.incrementAndGet() % SWEEP_INTERVAL != 0) {
+			return;
+		}
+
+		var now = System.nanoTime();
+		leases.values().removeIf(lease -> lease.isExpired(now));
+	}
+
+	private static class Lease {
+		private final AtomicInteger remaining;
+		private final long deadline;
+
+		private Lease(long remaining, long deadline) {
+			this.remaining = new AtomicInteger((int) remaining);
+			this.deadline = deadline;
+		}
+
+		private boolean tryTake() {
+			if (isExpired(System.nanoTime())) {
+				return false;
+			}
+
+			while (true) {
+				var n = remaining.get();
+				if (n <= 0) {
+					return false;
+				}
+				if (remaining.compareAndSet(n, n - 1)) {
+					return true;
+				}
+			}
+		}
+
+		// 取走剩余的许可，之后的 tryTake() 失败
+		private long drain() {
+			return remaining.getAndSet(0);
+		}
+
+		private boolean isExpired(long now) {
+			return deadline - now <= 0L;
+		}
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.github.yingzhuo.turbocharger.redis.ratelimit;
+
+public enum RateLimitAlgorithm {
+
+	// 令牌桶: 允许突发，平均速率为每个周期 permits 个
+	TOKEN_BUCKET,
+
+	// 滑动窗口日志: 任意一个周期内最多 permits 个，精确但每次发放都要记录
+	SLIDING_WINDOW_LOG
+
+}
@@ -0,0 +1,27 @@
+package com.github.yingzhuo.turbocharger.redis.ratelimit;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+public final class RateLimiterScripts {
+
+	public static final RedisScript<Long> TOKEN_BUCKET =
+		RedisScript.of(new ClassPathResource("META-INF/RateLimiter#token-bucket.lua"), Long.class);
+
+	public static final RedisScript<Long> SLIDING_WINDOW_LOG =
+		RedisScript.of(new ClassPathResource("META-INF/RateLimiter#sliding-window-log.lua"), Long.class);
+
+	private RateLimiterScripts() {
+		super();
+	}
+
+	public static List<RedisScript<?>> all() {
+		return List.of(
+			TOKEN_BUCKET,
+			SLIDING_WINDOW_LOG
+		);
+	}
+
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.yingzhuo.turbocharger.redis.ratelimit;
+
+import org.jspecify.annotations.NullMarked;
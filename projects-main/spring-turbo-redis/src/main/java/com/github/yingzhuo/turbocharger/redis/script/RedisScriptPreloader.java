@@ -0,0 +1,34 @@
+package com.github.yingzhuo.turbocharger.redis.script;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.List;
+
+public class RedisScriptPreloader implements SmartInitializingSingleton {
+
+	private final RedisOperations<String, String> redisOperations;
+	private final List<RedisScript<?>> scripts;
+
+	public RedisScriptPreloader(RedisOperations<String, String> redisOperations, Collection<? extends RedisScript<?>> scripts) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.notNull(scripts, "scripts is required");
+
+		this.redisOperations = redisOperations;
+		this.scripts = List.copyOf(scripts);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		try {
+			RedisScriptRegistry.getInstance(redisOperations).preload(scripts);
+		} catch (DataAccessException e) {
+			// 启动时redis不可用不影响使用，脚本将在第一次调用时加载
+		}
+	}
+
+}
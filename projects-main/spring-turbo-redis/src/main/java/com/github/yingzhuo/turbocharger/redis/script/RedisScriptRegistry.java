@@ -0,0 +1,184 @@
+package com.github.yingzhuo.turbocharger.redis.script;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RedisScriptRegistry {
+
+	/*
+	 * 脚本先通过 SCRIPT LOAD 预加载，之后一律使用 EVALSHA 调用，pipeline 中也是如此。
+	 * 遇到 NOSCRIPT 错误时 (比如 SCRIPT FLUSH 或主从切换后) 改用 EVAL 执行一次，服务端会再次缓存该脚本。
+	 */
+
+	private static final Map<RedisOperations<String, String>, RedisScriptRegistry> INSTANCES = new ConcurrentHashMap<>();
+
+	private final RedisOperations<String, String> redisOperations;
+	private final Set<String> loadedShas = ConcurrentHashMap.newKeySet();
+	private final LongAdder evalShaCount = new LongAdder();
+	private final LongAdder evalCount = new LongAdder();
+	private final LongAdder scriptLoadCount = new LongAdder();
+	private final LongAdder noScriptCount = new LongAdder();
+
+	private RedisScriptRegistry(RedisOperations<String, String> redisOperations) {
+		this.redisOperations = redisOperations;
+	}
+
+	public static RedisScriptRegistry getInstance(RedisOperations<String, String> redisOperations) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		return INSTANCES.computeIfAbsent(redisOperations, RedisScriptRegistry::new);
+	}
+
+	public static boolean isNoScriptError(@Nullable Throwable e) {
+		while (e != null) {
+			var message = e.getMessage();
+			if (message != null && message.contains("NOSCRIPT")) {
+				return true;
+			}
+			e = e.getCause();
+		}
+		return false;
+	}
+
+	public void preload(Collection<? extends RedisScript<?>> scripts) {
+		Assert.notNull(scripts, "scripts is required");
+
+		for (var script : scripts) {
+			redisOperations.execute((RedisCallback<String>) connection -> {
+				scriptLoadCount.increment();
+				return connection.scriptingCommands().scriptLoad(scriptBytes(script));
+			});
+			loadedShas.add(script.getSha1());
+		}
+	}
+
+	public boolean isLoaded(RedisScript<?> script) {
+		return loadedShas.contains(script.getSha1());
+	}
+
+	public void reset() {
+		loadedShas.clear();
+	}
+
+	@Nullable
+	public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+		Assert.notNull(script, "script is required");
+		Assert.notNull(keys, "keys is required");
+
+		var returnType = ReturnType.fromJavaType(script.getResultType());
+		var keysAndArgs = keysAndArgs(keys, args);
+
+		return redisOperations.execute((RedisCallback<T>) connection -> {
+			if (connection.isPipelined() || connection.isQueueing()) {
+				// pipeline 与事务中无法在出错后重试，只有确认已加载过的脚本才使用 EVALSHA
+				if (isLoaded(script)) {
+					evalSha(connection, script, returnType, keys.size(), keysAndArgs);
+				} else {
+					eval(connection, script, returnType, keys.size(), keysAndArgs);
+					loadedShas.add(script.getSha1());
+				}
+				return null;
+			}
+
+			Object result;
+			try {
+				result = evalSha(connection, script, returnType, keys.size(), keysAndArgs);
+			} catch (RuntimeException e) {
+				if (!isNoScriptError(e)) {
+					throw e;
+				}
+				noScriptCount.increment();
+				result = eval(connection, script, returnType, keys.size(), keysAndArgs);
+			}
+
+			loadedShas.add(script.getSha1());
+			return deserializeResult(result);
+		});
+	}
+
+	public long getEvalShaCount() {
+		return evalShaCount.sum();
+	}
+
+	public long getEvalCount() {
+		return evalCount.sum();
+	}
+
+	public long getScriptLoadCount() {
+		return scriptLoadCount.sum();
+	}
+
+	public long getNoScriptCount() {
+		return noScriptCount.sum();
+	}
+
+	public long getRoundTripCount() {
+		return getEvalShaCount() + getEvalCount() + getScriptLoadCount();
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	@Nullable
+	private Object evalSha(RedisConnection connection, RedisScript<?> script, ReturnType returnType, int numKeys, byte[][] keysAndArgs) {
+		evalShaCount.increment();
+		return connection.scriptingCommands().evalSha(script.getSha1(), returnType, numKeys, keysAndArgs);
+	}
+
+	@Nullable
+	private Object eval(RedisConnection connection, RedisScript<?> script, ReturnType returnType, int numKeys, byte[][] keysAndArgs) {
+		evalCount.increment();
+		return connection.scriptingCommands().eval(scriptBytes(script), returnType, numKeys, keysAndArgs);
+	}
+
+	private byte[] scriptBytes(RedisScript<?> script) {
+		return script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@SuppressWarnings("unchecked")
+	private byte[][] keysAndArgs(List<String> keys, Object[] args) {
+		var keySerializer = (RedisSerializer<Object>) Objects.requireNonNullElse(redisOperations.getKeySerializer(), RedisSerializer.string());
+		var argSerializer = (RedisSerializer<Object>) Objects.requireNonNullElse(redisOperations.getValueSerializer(), RedisSerializer.string());
+
+		var keysAndArgs = new byte[keys.size() + args.length][];
+		var i = 0;
+		for (var key : keys) {
+			keysAndArgs[i++] = keySerializer.serialize(key);
+		}
+		for (var arg : args) {
+			keysAndArgs[i++] = arg instanceof byte[] bytes ? bytes : argSerializer.serialize(arg);
+		}
+		return keysAndArgs;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private <T> T deserializeResult(@Nullable Object result) {
+		if (result instanceof byte[] bytes) {
+			return (T) redisOperations.getValueSerializer().deserialize(bytes);
+		}
+		if (result instanceof List<?> list) {
+			var deserialized = new ArrayList<@Nullable Object>(list.size());
+			for (var item : list) {
+				deserialized.add(deserializeResult(item));
+			}
+			return (T) deserialized;
+		}
+		return (T) result;
+	}
+
+}
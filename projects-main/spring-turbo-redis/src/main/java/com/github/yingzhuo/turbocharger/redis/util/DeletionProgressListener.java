@@ -0,0 +1,9 @@
+package com.github.yingzhuo.turbocharger.redis.util;
+
+@FunctionalInterface
+public interface DeletionProgressListener {
+
+	// 集群模式下会在多个线程中被调用
+	public void onProgress(DeletionStatistics statistics);
+
+}
@@ -0,0 +1,35 @@
+package com.github.yingzhuo.turbocharger.redis.util;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+public final class DeletionStatistics implements Serializable {
+
+	private final long deletedCount;
+	private final Duration elapsed;
+
+	public DeletionStatistics(long deletedCount, Duration elapsed) {
+		this.deletedCount = deletedCount;
+		this.elapsed = elapsed;
+	}
+
+	public long getDeletedCount() {
+		return deletedCount;
+	}
+
+	public Duration getElapsed() {
+		return elapsed;
+	}
+
+	// 每秒删除的元素(键)个数
+	public double getThroughput() {
+		var nanos = elapsed.toNanos();
+		return nanos <= 0L ? 0.0D : deletedCount * 1_000_000_000.0D / nanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("deleted %d in %d ms (%.1f/s)", deletedCount, elapsed.toMillis(), getThroughput());
+	}
+
+}
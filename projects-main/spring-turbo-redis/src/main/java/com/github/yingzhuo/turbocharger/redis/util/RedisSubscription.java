@@ -0,0 +1,93 @@
+package com.github.yingzhuo.turbocharger.redis.util;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisAccessor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class RedisSubscription implements AutoCloseable {
+
+	/*
+	 * 为一个 MessageListener 创建并启动独立的 RedisMessageListenerContainer，关闭时停止并销毁容器。
+	 *
+	 * 1. 如果无法从 RedisOperations 取得连接工厂，则不订阅，isSubscribed() 返回 false，调用者应退化为轮询。
+	 * 2. 所有未关闭的订阅都被登记，closeAll() 用于应用关闭时统一释放 (自动配置中已注册)。
+	 */
+
+	private static final Set<RedisSubscription> OPEN_SUBSCRIPTIONS = ConcurrentHashMap.newKeySet();
+
+	@Nullable
+	private final RedisMessageListenerContainer container;
+	private volatile boolean closed;
+
+	private RedisSubscription(@Nullable RedisMessageListenerContainer container) {
+		this.container = container;
+	}
+
+	public static RedisSubscription subscribe(RedisOperations<String, ?> redisOperations, MessageListener listener, Topic topic) {
+		return subscribe(redisOperations, listener, topic, null);
+	}
+
+	public static RedisSubscription subscribe(RedisOperations<String, ?> redisOperations, MessageListener listener, Topic topic, @Nullable RedisSerializer<String> topicSerializer) {
+		Assert.notNull(redisOperations, "redisOperations is required");
+		Assert.notNull(listener, "listener is required");
+		Assert.notNull(topic, "topic is required");
+
+		if (!(redisOperations instanceof RedisAccessor accessor) || accessor.getConnectionFactory() == null) {
+			return new RedisSubscription(null);
+		}
+
+		var c = new RedisMessageListenerContainer();
+		c.setConnectionFactory(accessor.getConnectionFactory());
+		if (topicSerializer != null) {
+			c.setTopicSerializer(topicSerializer);
+		}
+		c.addMessageListener(listener, topic);
+		c.afterPropertiesSet();
+		c.start();
+
+		var subscription = new RedisSubscription(c);
+		OPEN_SUBSCRIPTIONS.add(subscription);
+		return subscription;
+	}
+
+	public static void closeAll() {
+		for (var subscription : OPEN_SUBSCRIPTIONS) {
+			subscription.close();
+		}
+	}
+
+	public boolean isSubscribed() {
+		return !closed && container != null && container.isRunning();
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		OPEN_SUBSCRIPTIONS.remove(this);
+		if (container != null) {
+			try {
+				// 停止容器并释放其订阅连接与线程
+				container.destroy();
+			} catch (Exception e) {
+				// 关闭时的异常无需处理
+			}
+		}
+	}
+
+}
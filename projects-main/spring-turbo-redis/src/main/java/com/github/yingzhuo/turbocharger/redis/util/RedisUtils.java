@@ -1,16 +1,43 @@
 package com.github.yingzhuo.turbocharger.redis.util;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.ScanOptions;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 public final class RedisUtils {
 
 	// 参考资料: https://cloud.tencent.com/developer/article/2410509
 
+	/*
+	 * 1. 每批元素(键)用一条 UNLINK/HDEL/SREM/ZREM/LTRIM 删除，UNLINK 在服务端后台线程中回收内存。
+	 * 2. 集群模式下在每个主节点上分别 SCAN，各主节点在有界的线程池中并行处理。
+	 * 3. 每删除一批回调一次 DeletionProgressListener。
+	 * 4. deleteXxx 不返回结果，deleteXxxWithStatistics 返回删除个数与耗时，deleteXxxAsync 返回 CompletableFuture。
+	 * 5. 同步版本共享一个有界的线程池 (守护线程，空闲时回收)，不为每次调用创建线程池。
+	 */
+
 	private static final int DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP = 100;
+	private static final int DEFAULT_PARALLELISM = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
 
 	private RedisUtils() {
 	}
@@ -18,145 +45,370 @@ private RedisUtils() {
 	// -----------------------------------------------------------------------------------------------------------------
 
 	public static <V> void deleteValuesByPattern(RedisOperations<String, V> redisOperations, String pattern) {
-		deleteValuesByPattern(redisOperations, pattern, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+		deleteValuesByPatternWithStatistics(redisOperations, pattern);
 	}
 
 	public static <V> void deleteValuesByPattern(RedisOperations<String, V> redisOperations, String pattern, int deleteElementCountPerStep) {
+		deleteValuesByPatternWithStatistics(redisOperations, pattern, deleteElementCountPerStep);
+	}
+
+	public static <V> void deleteValuesByPattern(RedisOperations<String, V> redisOperations, String pattern, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
+		deleteValuesByPatternWithStatistics(redisOperations, pattern, deleteElementCountPerStep, listener);
+	}
+
+	public static <V> DeletionStatistics deleteValuesByPatternWithStatistics(RedisOperations<String, V> redisOperations, String pattern) {
+		return deleteValuesByPatternWithStatistics(redisOperations, pattern, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+	}
+
+	public static <V> DeletionStatistics deleteValuesByPatternWithStatistics(RedisOperations<String, V> redisOperations, String pattern, int deleteElementCountPerStep) {
+		return deleteValuesByPatternWithStatistics(redisOperations, pattern, deleteElementCountPerStep, null);
+	}
+
+	public static <V> DeletionStatistics deleteValuesByPatternWithStatistics(RedisOperations<String, V> redisOperations, String pattern, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
+		return join(deleteValuesByPatternAsync(redisOperations, pattern, deleteElementCountPerStep, listener, SharedExecutorHolder.EXECUTOR));
+	}
+
+	public static <V> CompletableFuture<DeletionStatistics> deleteValuesByPatternAsync(
+		RedisOperations<String, V> redisOperations,
+		String pattern,
+		int deleteElementCountPerStep,
+		@Nullable DeletionProgressListener listener,
+		Executor executor) {
+
 		Assert.notNull(redisOperations, "redisOperations is null");
 		Assert.hasText(pattern, "pattern is null or blank");
 		Assert.isTrue(deleteElementCountPerStep >= 10, "deleteElementCountPerStep should >= 10");
+		Assert.notNull(executor, "executor is null");
 
 		// @formatter:off
-        var scanOptions = ScanOptions.scanOptions()
-                .match(pattern)
-                .count(100)
-                .type(DataType.STRING)
-                .build();
-        // @formatter:on
-
-		try (var c = redisOperations.scan(scanOptions)) {
-			while (c.hasNext()) {
-				var key = c.next();
-				redisOperations.delete(key);
-			}
-		}
+		var scanOptions = ScanOptions.scanOptions()
+				.match(pattern)
+				.count(deleteElementCountPerStep)
+				.type(DataType.STRING)
+				.build();
+		// @formatter:on
+
+		var progress = new Progress(listener);
+
+		return CompletableFuture.supplyAsync(() -> clusterMasters(redisOperations), executor)
+			.thenCompose(masters -> {
+				var futures = new ArrayList<CompletableFuture<Void>>();
+				if (masters.isEmpty()) {
+					futures.add(CompletableFuture.runAsync(() -> scanAndUnlink(redisOperations, null, scanOptions, deleteElementCountPerStep, progress), executor));
+				} else {
+					// 每个主节点一个任务，由线程池控制并行度
+					for (var master : masters) {
+						futures.add(CompletableFuture.runAsync(() -> scanAndUnlink(redisOperations, master, scanOptions, deleteElementCountPerStep, progress), executor));
+					}
+				}
+				return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+			})
+			.thenApply(v -> progress.snapshot());
 	}
 
 	// -----------------------------------------------------------------------------------------------------------------
 
 	public static <V> void deleteBigHash(RedisOperations<String, V> redisOperations, String key) {
-		deleteBigHash(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+		deleteBigHashWithStatistics(redisOperations, key);
 	}
 
 	public static <V> void deleteBigHash(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		deleteBigHashWithStatistics(redisOperations, key, deleteElementCountPerStep);
+	}
+
+	public static <V> void deleteBigHash(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
+		deleteBigHashWithStatistics(redisOperations, key, deleteElementCountPerStep, listener);
+	}
+
+	public static <V> DeletionStatistics deleteBigHashWithStatistics(RedisOperations<String, V> redisOperations, String key) {
+		return deleteBigHashWithStatistics(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+	}
+
+	public static <V> DeletionStatistics deleteBigHashWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		return deleteBigHashWithStatistics(redisOperations, key, deleteElementCountPerStep, null);
+	}
+
+	public static <V> DeletionStatistics deleteBigHashWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
 		Assert.notNull(redisOperations, "redisOperations is null");
 		Assert.hasText(key, "key is null or blank");
-		Assert.isTrue(deleteElementCountPerStep >= 10, "cursorCount should >= 10");
+		Assert.isTrue(deleteElementCountPerStep >= 10, "deleteElementCountPerStep should >= 10");
 
 		var hashOp = redisOperations.opsForHash();
-
-		// @formatter:off
-        var scanOptions = ScanOptions.scanOptions()
-                .count(deleteElementCountPerStep)
-                .match("*")
-                .build();
-        // @formatter:on
-
-		try (var c = hashOp.scan(key, scanOptions)) {
-			while (c.hasNext()) {
-				var entryKey = c.next().getKey();
-				hashOp.delete(key, entryKey);
-			}
+		var progress = new Progress(listener);
+
+		try (var c = hashOp.scan(key, scanOptions(deleteElementCountPerStep))) {
+			forEachBatch(c, deleteElementCountPerStep, batch -> {
+				var fields = new Object[batch.size()];
+				for (int i = 0; i < fields.length; i++) {
+					fields[i] = batch.get(i).getKey();
+				}
+				progress.increase(hashOp.delete(key, fields));
+			});
 		}
 
-		redisOperations.delete(key);
+		redisOperations.unlink(key);
+		return progress.snapshot();
+	}
+
+	public static <V> CompletableFuture<DeletionStatistics> deleteBigHashAsync(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener, Executor executor) {
+		return supplyAsync(() -> deleteBigHashWithStatistics(redisOperations, key, deleteElementCountPerStep, listener), executor);
 	}
 
 	// -----------------------------------------------------------------------------------------------------------------
 
 	public static <V> void deleteBigList(RedisOperations<String, V> redisOperations, String key) {
-		deleteBigList(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+		deleteBigListWithStatistics(redisOperations, key);
 	}
 
 	public static <V> void deleteBigList(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		deleteBigListWithStatistics(redisOperations, key, deleteElementCountPerStep);
+	}
+
+	public static <V> void deleteBigList(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
+		deleteBigListWithStatistics(redisOperations, key, deleteElementCountPerStep, listener);
+	}
+
+	public static <V> DeletionStatistics deleteBigListWithStatistics(RedisOperations<String, V> redisOperations, String key) {
+		return deleteBigListWithStatistics(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+	}
+
+	public static <V> DeletionStatistics deleteBigListWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		return deleteBigListWithStatistics(redisOperations, key, deleteElementCountPerStep, null);
+	}
+
+	public static <V> DeletionStatistics deleteBigListWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
 		Assert.notNull(redisOperations, "redisOperations is null");
-		Assert.notNull(key, "key is null or blank");
+		Assert.hasText(key, "key is null or blank");
 		Assert.isTrue(deleteElementCountPerStep >= 10, "deleteElementCountPerStep should >= 10");
 
 		var listOp = redisOperations.opsForList();
-		var size = listOp.size(key);
-		var count = 0L;
+		var progress = new Progress(listener);
 
-		if (size == null || size.equals(0L)) {
-			return;
+		var size = listOp.size(key);
+		while (size != null && size > 0L) {
+			// 每次从头部裁掉一批
+			listOp.trim(key, deleteElementCountPerStep, -1);
+			progress.increase(Math.min(size, deleteElementCountPerStep));
+			size = listOp.size(key);
 		}
 
-		while (count < size) {
-			listOp.trim(key, 0, deleteElementCountPerStep);
-			count += deleteElementCountPerStep;
-		}
+		redisOperations.unlink(key);
+		return progress.snapshot();
+	}
 
-		redisOperations.delete(key);
+	public static <V> CompletableFuture<DeletionStatistics> deleteBigListAsync(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener, Executor executor) {
+		return supplyAsync(() -> deleteBigListWithStatistics(redisOperations, key, deleteElementCountPerStep, listener), executor);
 	}
 
 	// -----------------------------------------------------------------------------------------------------------------
 
 	public static <V> void deleteBigSet(RedisOperations<String, V> redisOperations, String key) {
-		deleteBigSet(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+		deleteBigSetWithStatistics(redisOperations, key);
 	}
 
 	public static <V> void deleteBigSet(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		deleteBigSetWithStatistics(redisOperations, key, deleteElementCountPerStep);
+	}
+
+	public static <V> void deleteBigSet(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
+		deleteBigSetWithStatistics(redisOperations, key, deleteElementCountPerStep, listener);
+	}
+
+	public static <V> DeletionStatistics deleteBigSetWithStatistics(RedisOperations<String, V> redisOperations, String key) {
+		return deleteBigSetWithStatistics(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+	}
+
+	public static <V> DeletionStatistics deleteBigSetWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		return deleteBigSetWithStatistics(redisOperations, key, deleteElementCountPerStep, null);
+	}
+
+	public static <V> DeletionStatistics deleteBigSetWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
 		Assert.notNull(redisOperations, "redisOperations is null");
 		Assert.hasText(key, "key is null or blank");
-		Assert.isTrue(deleteElementCountPerStep >= 10, "cursorCount should >= 10");
+		Assert.isTrue(deleteElementCountPerStep >= 10, "deleteElementCountPerStep should >= 10");
 
 		var setOp = redisOperations.opsForSet();
+		var progress = new Progress(listener);
 
-		// @formatter:off
-        var scanOptions = ScanOptions.scanOptions()
-                .count(deleteElementCountPerStep)
-                .match("*")
-                .build();
-        // @formatter:on
-
-		try (var c = setOp.scan(key, scanOptions)) {
-			while (c.hasNext()) {
-				var item = c.next();
-				setOp.remove(key, item);
-			}
+		try (var c = setOp.scan(key, scanOptions(deleteElementCountPerStep))) {
+			forEachBatch(c, deleteElementCountPerStep, batch -> progress.increase(setOp.remove(key, batch.toArray())));
 		}
 
-		redisOperations.delete(key);
+		redisOperations.unlink(key);
+		return progress.snapshot();
+	}
+
+	public static <V> CompletableFuture<DeletionStatistics> deleteBigSetAsync(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener, Executor executor) {
+		return supplyAsync(() -> deleteBigSetWithStatistics(redisOperations, key, deleteElementCountPerStep, listener), executor);
 	}
 
 	// -----------------------------------------------------------------------------------------------------------------
 
 	public static <V> void deleteBigZset(RedisOperations<String, V> redisOperations, String key) {
-		deleteBigSet(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+		deleteBigZsetWithStatistics(redisOperations, key);
 	}
 
 	public static <V> void deleteBigZset(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		deleteBigZsetWithStatistics(redisOperations, key, deleteElementCountPerStep);
+	}
+
+	public static <V> void deleteBigZset(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
+		deleteBigZsetWithStatistics(redisOperations, key, deleteElementCountPerStep, listener);
+	}
+
+	public static <V> DeletionStatistics deleteBigZsetWithStatistics(RedisOperations<String, V> redisOperations, String key) {
+		return deleteBigZsetWithStatistics(redisOperations, key, DEFAULT_DELETE_ELEMENT_COUNT_PER_STEP);
+	}
+
+	public static <V> DeletionStatistics deleteBigZsetWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep) {
+		return deleteBigZsetWithStatistics(redisOperations, key, deleteElementCountPerStep, null);
+	}
+
+	public static <V> DeletionStatistics deleteBigZsetWithStatistics(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener) {
 		Assert.notNull(redisOperations, "redisOperations is null");
 		Assert.hasText(key, "key is null or blank");
-		Assert.isTrue(deleteElementCountPerStep >= 10, "cursorCount should >= 10");
+		Assert.isTrue(deleteElementCountPerStep >= 10, "deleteElementCountPerStep should >= 10");
 
 		var zsetOp = redisOperations.opsForZSet();
+		var progress = new Progress(listener);
+
+		try (var c = zsetOp.scan(key, scanOptions(deleteElementCountPerStep))) {
+			forEachBatch(c, deleteElementCountPerStep, batch -> {
+				var members = new Object[batch.size()];
+				for (int i = 0; i < members.length; i++) {
+					members[i] = batch.get(i).getValue();
+				}
+				progress.increase(zsetOp.remove(key, members));
+			});
+		}
 
+		redisOperations.unlink(key);
+		return progress.snapshot();
+	}
+
+	public static <V> CompletableFuture<DeletionStatistics> deleteBigZsetAsync(RedisOperations<String, V> redisOperations, String key, int deleteElementCountPerStep, @Nullable DeletionProgressListener listener, Executor executor) {
+		return supplyAsync(() -> deleteBigZsetWithStatistics(redisOperations, key, deleteElementCountPerStep, listener), executor);
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private static ScanOptions scanOptions(int deleteElementCountPerStep) {
 		// @formatter:off
-        var scanOptions = ScanOptions.scanOptions()
-                .count(deleteElementCountPerStep)
-                .match("*")
-                .build();
-        // @formatter:on
-
-		try (var c = zsetOp.scan(key, scanOptions)) {
-			while (c.hasNext()) {
-				var item = c.next();
-				zsetOp.remove(key, item.getValue());
+		return ScanOptions.scanOptions()
+				.count(deleteElementCountPerStep)
+				.match("*")
+				.build();
+		// @formatter:on
+	}
+
+	private static <T> void forEachBatch(Cursor<T> cursor, int batchSize, Consumer<List<T>> action) {
+		var batch = new ArrayList<T>(batchSize);
+		while (cursor.hasNext()) {
+			batch.add(cursor.next());
+			if (batch.size() == batchSize) {
+				action.accept(batch);
+				batch.clear();
+			}
+		}
+
+		if (!batch.isEmpty()) {
+			action.accept(batch);
+		}
+	}
+
+	private static List<RedisClusterNode> clusterMasters(RedisOperations<String, ?> redisOperations) {
+		var masters = redisOperations.execute((RedisCallback<List<RedisClusterNode>>) connection -> {
+			var list = new ArrayList<RedisClusterNode>();
+			if (connection instanceof RedisClusterConnection clusterConnection) {
+				for (var node : clusterConnection.clusterGetNodes()) {
+					if (node.isMaster()) {
+						list.add(node);
+					}
+				}
+			}
+			return list;
+		});
+		return masters != null ? masters : List.of();
+	}
+
+	private static void scanAndUnlink(RedisOperations<String, ?> redisOperations, @Nullable RedisClusterNode node, ScanOptions scanOptions, int batchSize, Progress progress) {
+		redisOperations.execute((RedisCallback<Void>) connection -> {
+			try (var c = scan(connection, node, scanOptions)) {
+				forEachBatch(c, batchSize, batch -> {
+					// 集群模式下驱动会把跨槽的键按槽拆分
+					progress.increase(connection.keyCommands().unlink(batch.toArray(new byte[0][])));
+				});
+			}
+			return null;
+		});
+	}
+
+	private static Cursor<byte[]> scan(RedisConnection connection, @Nullable RedisClusterNode node, ScanOptions scanOptions) {
+		if (node != null) {
+			return ((RedisClusterConnection) connection).scan(node, scanOptions);
+		}
+		return connection.keyCommands().scan(scanOptions);
+	}
+
+	private static CompletableFuture<DeletionStatistics> supplyAsync(Supplier<DeletionStatistics> supplier, Executor executor) {
+		Assert.notNull(executor, "executor is null");
+		return CompletableFuture.supplyAsync(supplier, executor);
+	}
+
+	private static DeletionStatistics join(CompletableFuture<DeletionStatistics> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	// 首次使用同步版本时才创建
+	private static class SharedExecutorHolder {
+		private static final ThreadPoolExecutor EXECUTOR;
+
+		static {
+			EXECUTOR = new ThreadPoolExecutor(
+				DEFAULT_PARALLELISM, DEFAULT_PARALLELISM,
+				60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				runnable -> {
+					var thread = new Thread(runnable, "redis-bulk-deletion");
+					thread.setDaemon(true);
+					return thread;
+				}
+			);
+			EXECUTOR.allowCoreThreadTimeOut(true);
+		}
+	}
+
+	private static class Progress {
+		private final long startNanos = System.nanoTime();
+		private final LongAdder deletedCount = new LongAdder();
+
+		@Nullable
+		private final DeletionProgressListener listener;
+
+		private Progress(@Nullable DeletionProgressListener listener) {
+			this.listener = listener;
+		}
+
+		private void increase(@Nullable Long n) {
+			if (n != null && n > 0L) {
+				deletedCount.add(n);
+			}
+
+			if (listener != null) {
+				listener.onProgress(snapshot());
 			}
 		}
 
-		redisOperations.delete(key);
+		private DeletionStatistics snapshot() {
+			return new DeletionStatistics(deletedCount.sum(), Duration.ofNanos(System.nanoTime() - startNanos));
+		}
 	}
 
 }
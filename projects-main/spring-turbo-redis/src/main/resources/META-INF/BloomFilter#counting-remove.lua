@@ -0,0 +1,30 @@
+--[[
+计数布隆过滤器 - 删除元素
+作者: 应卓
+
+KEYS[1]: 元素所在分片的键
+ARGV   : 元素的k个计数器下标 (每个计数器为4位无符号整数)
+
+return:
+    true : 删除成功
+    false: 元素不存在，未做任何修改
+--]]
+
+local key = KEYS[1]
+
+-- 任何一个计数器为0说明元素不存在
+for i = 1, #ARGV do
+    if redis.call('BITFIELD', key, 'GET', 'u4', '#' .. ARGV[i])[1] == 0 then
+        return false
+    end
+end
+
+-- 已饱和的计数器 (15) 不再递减，否则可能造成误删
+for i = 1, #ARGV do
+    local n = redis.call('BITFIELD', key, 'GET', 'u4', '#' .. ARGV[i])[1]
+    if n > 0 and n < 15 then
+        redis.call('BITFIELD', key, 'INCRBY', 'u4', '#' .. ARGV[i], -1)
+    end
+end
+
+return true
@@ -0,0 +1,35 @@
+--[[
+可扩展布隆过滤器 - 元素计数并按需扩容
+作者: 应卓
+
+KEYS[1]: 元数据 HASH 的键 (field "filters" 为子过滤器个数，"count" 为最后一个子过滤器的元素个数)
+ARGV[1]: 第一个子过滤器的容量
+ARGV[2]: 容量增长倍数
+ARGV[3]: 元素被写入的子过滤器序号 (从0开始)
+
+return:
+    {当前子过滤器个数, 最后一个子过滤器的元素个数}
+--]]
+
+local key = KEYS[1]
+local initialCapacity = tonumber(ARGV[1])
+local growthFactor = tonumber(ARGV[2])
+local index = tonumber(ARGV[3])
+
+local filters = tonumber(redis.call('HGET', key, 'filters') or '1')
+
+-- 其他节点已经扩容，元素写入了旧的子过滤器，不计入新的子过滤器
+if index + 1 < filters then
+    return {filters, tonumber(redis.call('HGET', key, 'count') or '0')}
+end
+
+local count = redis.call('HINCRBY', key, 'count', 1)
+local capacity = math.floor(initialCapacity * growthFactor ^ (filters - 1))
+
+if count >= capacity then
+    filters = filters + 1
+    count = 0
+    redis.call('HSET', key, 'filters', filters, 'count', count)
+end
+
+return {filters, count}
@@ -0,0 +1,36 @@
+--[[
+防止重复调用 - 首次调用结束
+作者: 应卓
+
+KEYS[1]: 防重复调用的键
+ARGV[1]: 本次调用的执行中标记
+ARGV[2]: 调用的结果，为空字符串时表示调用失败，删除该键
+ARGV[3]: 结果的TTL (毫秒)
+ARGV[4]: 用于发布完成通知的频道
+
+只有键的值仍然是本次调用的执行中标记时才写入结果或删除，
+调用超出租约后键可能已被其他调用占用，此时不做任何修改
+
+return:
+    true : 已写入结果或已删除
+    false: 键已不属于本次调用
+--]]
+
+local key = KEYS[1]
+local token = ARGV[1]
+local result = ARGV[2]
+local ttl = ARGV[3]
+local channel = ARGV[4]
+
+if redis.call('GET', key) ~= token then
+    return false
+end
+
+if result == '' then
+    redis.call('DEL', key)
+else
+    redis.call('SET', key, result, 'PX', ttl)
+end
+
+redis.call('PUBLISH', channel, key)
+return true
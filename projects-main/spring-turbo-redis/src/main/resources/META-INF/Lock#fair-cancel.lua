@@ -0,0 +1,34 @@
+--[[
+公平分布式锁 - 放弃等待
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: HASH的 field
+ARGV[3]: 用于发布通知的频道
+
+放弃等待的是队首时发布通知，使下一个等待者尽快重试
+
+return:
+    true : 已从队列中移除
+    false: 不在队列中
+--]]
+
+local key = ARGV[1]
+local field = ARGV[2]
+local channel = ARGV[3]
+local queueKey = key .. ':queue'
+local timeoutKey = key .. ':timeout'
+
+local first = redis.call('LINDEX', queueKey, 0)
+
+if redis.call('LREM', queueKey, 0, field) == 0 then
+    return false
+end
+redis.call('ZREM', timeoutKey, field)
+
+if first == field then
+    redis.call('PUBLISH', channel, key)
+end
+
+return true
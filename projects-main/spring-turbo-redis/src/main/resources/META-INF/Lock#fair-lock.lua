@@ -0,0 +1,80 @@
+--[[
+公平分布式锁 - 加锁
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: HASH的 field
+ARGV[3]: 键TTL (秒)
+ARGV[4]: 等待者的超时时间 (毫秒)，超过此时间未再次尝试的等待者被视为已失效
+ARGV[5]: 是否排队等待 ("1": 是, "0": 否)
+
+等待队列:
+    "键:queue"  : LIST，等待者的 field，先进先出
+    "键:timeout": ZSET，等待者的 field，score 为失效时间
+
+return: 整数
+    0: 加锁失败
+    其他值: 当前锁被重入的次数
+--]]
+
+local key = ARGV[1]
+local field = ARGV[2]
+local ttl = ARGV[3]
+local waiterTimeout = tonumber(ARGV[4])
+local enqueue = ARGV[5] == '1'
+local queueKey = key .. ':queue'
+local timeoutKey = key .. ':timeout'
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- 从队首开始清除已失效的等待者
+while true do
+    local first = redis.call('LINDEX', queueKey, 0)
+    if not first then
+        break
+    end
+
+    local deadline = redis.call('ZSCORE', timeoutKey, first)
+    if deadline and tonumber(deadline) > now then
+        break
+    end
+
+    redis.call('LPOP', queueKey)
+    redis.call('ZREM', timeoutKey, first)
+end
+
+-- 重入
+if redis.call('HEXISTS', key, field) == 1 then
+    local count = redis.call('HINCRBY', key, field, 1)
+    redis.call('EXPIRE', key, ttl)
+    return count
+end
+
+-- 锁空闲，并且没有排队者或自己就是队首
+if redis.call('EXISTS', key) == 0 then
+    local first = redis.call('LINDEX', queueKey, 0)
+    if not first or first == field then
+        if first then
+            redis.call('LPOP', queueKey)
+            redis.call('ZREM', timeoutKey, field)
+        end
+
+        redis.call('HINCRBY', key, field, 1)
+        redis.call('EXPIRE', key, ttl)
+        return 1
+    end
+end
+
+-- 入队或刷新自己的失效时间
+if enqueue then
+    if not redis.call('ZSCORE', timeoutKey, field) then
+        redis.call('RPUSH', queueKey, field)
+    end
+    redis.call('ZADD', timeoutKey, now + waiterTimeout, field)
+    redis.call('PEXPIRE', queueKey, waiterTimeout * 2)
+    redis.call('PEXPIRE', timeoutKey, waiterTimeout * 2)
+end
+
+return 0
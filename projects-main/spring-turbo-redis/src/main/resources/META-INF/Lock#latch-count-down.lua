@@ -0,0 +1,28 @@
+--[[
+分布式倒计数门闩 - 计数减一
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: 计数归零时用于发布通知的频道
+
+return:
+    剩余的计数，键不存在时为0
+--]]
+
+local key = ARGV[1]
+local channel = ARGV[2]
+
+if redis.call('EXISTS', key) == 0 then
+    return 0
+end
+
+local n = redis.call('DECR', key)
+
+if n <= 0 then
+    redis.call('DEL', key)
+    redis.call('PUBLISH', channel, key)
+    return 0
+end
+
+return n
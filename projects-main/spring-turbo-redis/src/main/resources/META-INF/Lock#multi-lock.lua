@@ -0,0 +1,35 @@
+--[[
+多键分布式锁 - 加锁
+作者: 应卓
+
+KEYS   : 所有作为锁的键 (已排序，集群模式下必须位于同一个 slot)
+ARGV[1]: HASH的 field
+ARGV[2]: 键TTL (秒)
+
+全部加锁或全部不加锁，每个键的结构与可重入分布式锁相同
+
+return: 整数
+    0: 加锁失败
+    其他值: 当前锁被重入的次数 (以第一个键为准)
+--]]
+
+local field = ARGV[1]
+local ttl = ARGV[2]
+
+-- 任意一个键被其他持有者占用则失败
+for _, key in ipairs(KEYS) do
+    if redis.call('EXISTS', key) == 1 and redis.call('HEXISTS', key, field) == 0 then
+        return 0
+    end
+end
+
+local count = 0
+for i, key in ipairs(KEYS) do
+    local n = redis.call('HINCRBY', key, field, 1)
+    redis.call('EXPIRE', key, ttl)
+    if i == 1 then
+        count = n
+    end
+end
+
+return count
@@ -0,0 +1,33 @@
+--[[
+多键分布式锁 - 解锁
+作者: 应卓
+
+KEYS   : 所有作为锁的键 (已排序，集群模式下必须位于同一个 slot)
+ARGV[1]: HASH的 field
+ARGV[2]: 锁完全释放时用于发布通知的频道
+
+任意一个键完全释放时会将该键发布到 ARGV[2] 频道，以唤醒其他节点上等待该锁的线程
+
+return:
+    true : 解锁成功
+    false: 解锁失败
+--]]
+
+local field = ARGV[1]
+local channel = ARGV[2]
+
+for _, key in ipairs(KEYS) do
+    if redis.call('EXISTS', key) == 1 and redis.call('HEXISTS', key, field) == 0 then
+        return false
+    end
+end
+
+for _, key in ipairs(KEYS) do
+    local n = redis.call('HINCRBY', key, field, -1)
+    if n <= 0 then
+        redis.call('DEL', key)
+        redis.call('PUBLISH', channel, key)
+    end
+end
+
+return true
@@ -0,0 +1,31 @@
+--[[
+分布式读写锁 - 读锁续期
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: HASH的 field (读锁持有者，格式为 "r:持有者")
+ARGV[3]: 新的TTL (秒)
+
+同时延长该读者自己的租约与整个锁的TTL
+
+return:
+    true : 续期成功
+    false: 续期失败
+--]]
+
+local key = ARGV[1]
+local field = ARGV[2]
+local ttl = ARGV[3]
+local readersKey = key .. ':readers'
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+if redis.call('HEXISTS', key, field) == 0 then
+    return false
+end
+
+redis.call('ZADD', readersKey, now + tonumber(ttl) * 1000, field)
+redis.call('EXPIRE', key, ttl)
+redis.call('EXPIRE', readersKey, ttl)
+return true
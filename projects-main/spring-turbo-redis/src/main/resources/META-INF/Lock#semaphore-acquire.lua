@@ -0,0 +1,38 @@
+--[[
+分布式信号量 - 获取许可
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串 (ZSET，member 为许可租约，score 为租约到期时间)
+ARGV[2]: 许可租约的唯一标识
+ARGV[3]: 许可总数
+ARGV[4]: 租约的TTL (秒)
+
+return:
+    true : 获取成功
+    false: 许可已用尽
+--]]
+
+local key = ARGV[1]
+local lease = ARGV[2]
+local permits = tonumber(ARGV[3])
+local ttl = tonumber(ARGV[4]) * 1000
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- 清除已过期的租约 (持有者宕机后不再续期)
+redis.call('ZREMRANGEBYSCORE', key, '-inf', now)
+
+if redis.call('ZCARD', key) >= permits then
+    return false
+end
+
+redis.call('ZADD', key, now + ttl, lease)
+
+-- 键的TTL不短于最晚到期的租约
+if redis.call('PTTL', key) < ttl then
+    redis.call('PEXPIRE', key, ttl)
+end
+
+return true
@@ -0,0 +1,24 @@
+--[[
+分布式信号量 - 归还许可
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: 许可租约的唯一标识
+ARGV[3]: 归还许可时用于发布通知的频道
+
+return:
+    true : 归还成功
+    false: 租约不存在 (已经过期或已经归还)
+--]]
+
+local key = ARGV[1]
+local lease = ARGV[2]
+local channel = ARGV[3]
+
+if redis.call('ZREM', key, lease) == 0 then
+    return false
+end
+
+redis.call('PUBLISH', channel, key)
+return true
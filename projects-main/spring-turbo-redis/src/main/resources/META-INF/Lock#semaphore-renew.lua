@@ -0,0 +1,39 @@
+--[[
+分布式信号量 - 续期许可租约
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: 许可租约的唯一标识
+ARGV[3]: 新的TTL (秒)
+
+return:
+    true : 续期成功
+    false: 租约不存在或已过期
+--]]
+
+local key = ARGV[1]
+local lease = ARGV[2]
+local ttl = tonumber(ARGV[3]) * 1000
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local expiry = redis.call('ZSCORE', key, lease)
+if not expiry then
+    return false
+end
+
+-- 已过期但尚未清除的租约不能复活，许可可能已经被其他持有者取得
+if tonumber(expiry) <= now then
+    redis.call('ZREM', key, lease)
+    return false
+end
+
+redis.call('ZADD', key, 'XX', now + ttl, lease)
+
+if redis.call('PTTL', key) < ttl then
+    redis.call('PEXPIRE', key, ttl)
+end
+
+return true
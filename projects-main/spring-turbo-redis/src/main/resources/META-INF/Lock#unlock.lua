@@ -5,6 +5,9 @@
 KEYS   : 未使用
 ARGV[1]: 作为键的字符串
 ARGV[2]: HASH的 field
+ARGV[3]: 锁完全释放时用于发布通知的频道
+
+锁完全释放时会将锁的键发布到 ARGV[3] 频道，以唤醒其他节点上等待该锁的线程
 
 return:
     true : 解锁成功
@@ -13,6 +16,7 @@ return:
 
 local key = ARGV[1]
 local field = ARGV[2]
+local channel = ARGV[3]
 
 if redis.call('EXISTS', key) == 1 and redis.call('HEXISTS', key, field) == 0 then
     return false
@@ -22,6 +26,7 @@ local n = redis.call('HINCRBY', key, field, -1)
 
 if n <= 0 then
     redis.call('DEL', key)
+    redis.call('PUBLISH', channel, key)
 end
 
 return true
@@ -0,0 +1,56 @@
+--[[
+分布式读写锁 - 加写锁
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: HASH的 field (写锁持有者，格式为 "w:持有者")
+ARGV[3]: 键TTL (秒)
+
+注意: 持有读锁时不能升级为写锁
+
+return: 整数
+    0: 加锁失败
+    其他值: 当前写锁被重入的次数
+--]]
+
+-- 清除租约已过期的读者 (持有者宕机后不再续期)，只剩 mode 字段时删除整个锁
+local function pruneReaders(key, readersKey, now)
+    local fields = redis.call('HKEYS', key)
+    for _, f in ipairs(fields) do
+        if string.sub(f, 1, 2) == 'r:' then
+            local deadline = redis.call('ZSCORE', readersKey, f)
+            if not deadline or tonumber(deadline) <= now then
+                redis.call('HDEL', key, f)
+                redis.call('ZREM', readersKey, f)
+            end
+        end
+    end
+
+    if redis.call('HLEN', key) == 1 then
+        redis.call('DEL', key, readersKey)
+        return true
+    end
+    return false
+end
+
+local key = ARGV[1]
+local field = ARGV[2]
+local ttl = ARGV[3]
+local readersKey = key .. ':readers'
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+pruneReaders(key, readersKey, now)
+
+local mode = redis.call('HGET', key, 'mode')
+
+if mode == false then
+    redis.call('HSET', key, 'mode', 'write')
+elseif mode ~= 'write' or redis.call('HEXISTS', key, field) == 0 then
+    return 0
+end
+
+local count = redis.call('HINCRBY', key, field, 1)
+redis.call('EXPIRE', key, ttl)
+return count
@@ -0,0 +1,64 @@
+--[[
+分布式读写锁 - 解写锁
+作者: 应卓
+
+KEYS   : 未使用
+ARGV[1]: 作为键的字符串
+ARGV[2]: HASH的 field (写锁持有者，格式为 "w:持有者")
+ARGV[3]: 锁完全释放时用于发布通知的频道
+
+return:
+    true : 解锁成功
+    false: 解锁失败
+--]]
+
+-- 清除租约已过期的读者 (持有者宕机后不再续期)，只剩 mode 字段时删除整个锁
+local function pruneReaders(key, readersKey, now)
+    local fields = redis.call('HKEYS', key)
+    for _, f in ipairs(fields) do
+        if string.sub(f, 1, 2) == 'r:' then
+            local deadline = redis.call('ZSCORE', readersKey, f)
+            if not deadline or tonumber(deadline) <= now then
+                redis.call('HDEL', key, f)
+                redis.call('ZREM', readersKey, f)
+            end
+        end
+    end
+
+    if redis.call('HLEN', key) == 1 then
+        redis.call('DEL', key, readersKey)
+        return true
+    end
+    return false
+end
+
+local key = ARGV[1]
+local field = ARGV[2]
+local channel = ARGV[3]
+local readersKey = key .. ':readers'
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+pruneReaders(key, readersKey, now)
+
+if redis.call('HEXISTS', key, field) == 0 then
+    return false
+end
+
+local n = redis.call('HINCRBY', key, field, -1)
+
+if n <= 0 then
+    redis.call('HDEL', key, field)
+
+    if redis.call('HLEN', key) <= 1 then
+        redis.call('DEL', key, readersKey)
+    else
+        -- 持有者在写锁期间加过读锁，降级为读锁
+        redis.call('HSET', key, 'mode', 'read')
+    end
+
+    -- 无论完全释放还是降级，等待中的读者都可以重试
+    redis.call('PUBLISH', channel, key)
+end
+
+return true
@@ -0,0 +1,38 @@
+--[[
+分布式限流 - 滑动窗口日志
+作者: 应卓
+
+KEYS[1]: 日志的键 (ZSET，score 为发放时间)
+ARGV[1]: 窗口内允许的最大次数
+ARGV[2]: 窗口大小 (毫秒)
+ARGV[3]: 申请的次数
+ARGV[4]: 本次调用唯一的成员前缀
+
+return:
+    实际发放的次数 (0 到 ARGV[3])，余量不足时尽量发放
+--]]
+
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local windowInMillis = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local member = ARGV[4]
+
+-- 使用服务端时间，避免各节点时钟不一致
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- 清除窗口以外的记录
+redis.call('ZREMRANGEBYSCORE', key, '-inf', now - windowInMillis)
+
+local granted = math.min(requested, limit - redis.call('ZCARD', key))
+if granted <= 0 then
+    return 0
+end
+
+for i = 1, granted do
+    redis.call('ZADD', key, now, member .. ':' .. i)
+end
+redis.call('PEXPIRE', key, windowInMillis)
+
+return granted
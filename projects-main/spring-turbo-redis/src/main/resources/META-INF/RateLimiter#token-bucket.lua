@@ -0,0 +1,37 @@
+--[[
+分布式限流 - 令牌桶
+作者: 应卓
+
+KEYS[1]: 令牌桶的键 (HASH)
+ARGV[1]: 桶容量，也是每个周期补充的令牌数
+ARGV[2]: 周期 (毫秒)
+ARGV[3]: 申请的令牌数
+
+return:
+    实际发放的令牌数 (0 到 ARGV[3])，令牌不足时尽量发放
+--]]
+
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local periodInMillis = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+-- 使用服务端时间，避免各节点时钟不一致
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', key, 'tokens', 'timestamp')
+local tokens = tonumber(state[1]) or capacity
+local timestamp = tonumber(state[2]) or now
+
+-- 按流逝的时间补充令牌
+local elapsed = math.max(0, now - timestamp)
+tokens = math.min(capacity, tokens + elapsed * capacity / periodInMillis)
+
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', key, 'tokens', tostring(tokens), 'timestamp', tostring(now))
+redis.call('PEXPIRE', key, periodInMillis * 2)
+
+return granted
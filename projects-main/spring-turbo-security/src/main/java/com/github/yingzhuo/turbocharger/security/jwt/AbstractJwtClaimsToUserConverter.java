@@ -0,0 +1,29 @@
+package com.github.yingzhuo.turbocharger.security.jwt;
+
+import com.github.yingzhuo.turbocharger.jwt.JwtValidator;
+import org.jspecify.annotations.Nullable;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public abstract class AbstractJwtClaimsToUserConverter extends AbstractJwtTokenToUserConverter {
+
+	/*
+	 * 直接读取 JwtClaimsView 中的声明，不必把 header 与 payload 解码为 JSON 字符串再自行解析。
+	 */
+
+	protected AbstractJwtClaimsToUserConverter(JwtValidator jwtValidator) {
+		super(jwtValidator);
+	}
+
+	@Nullable
+	@Override
+	protected abstract UserDetails doAuthenticate(JwtClaimsView claims) throws AuthenticationException;
+
+	// 父类只调用 doAuthenticate(JwtClaimsView)，不会调用此方法
+	@Nullable
+	@Override
+	protected final UserDetails doAuthenticate(String headerJson, String payloadJson) throws AuthenticationException {
+		throw new IllegalStateException("use doAuthenticate(JwtClaimsView) instead");
+	}
+
+}
@@ -13,19 +13,20 @@
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.util.Assert;
 
-import java.util.Base64;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 public abstract class AbstractJwtTokenToUserConverter implements TokenToUserConverter {
 
 	private final JwtValidator jwtValidator;
+	private @Nullable VerifiedTokenCache verifiedTokenCache;
 
 	protected AbstractJwtTokenToUserConverter(JwtValidator jwtValidator) {
 		Assert.notNull(jwtValidator, "jwtValidator is required");
 		this.jwtValidator = jwtValidator;
 	}
 
+	public void setVerifiedTokenCache(@Nullable VerifiedTokenCache verifiedTokenCache) {
+		this.verifiedTokenCache = verifiedTokenCache;
+	}
+
 	@Nullable
 	@Override
 	public final UserDetails convert(@Nullable Token token) throws AuthenticationException {
@@ -33,16 +34,28 @@ public final UserDetails convert(@Nullable Token token) throws AuthenticationExc
 			return null;
 		}
 
+		// 已通过校验的令牌直接使用缓存的结果
+		if (verifiedTokenCache != null) {
+			var claims = verifiedTokenCache.get(token);
+			if (claims != null) {
+				return doAuthenticate(claims);
+			}
+		}
+
 		var rawToken = token.asString();
 
-		var parts = rawToken.split("\\.");
-		if (parts.length != 3) {
+		// header.payload.signature
+		var firstDot = rawToken.indexOf('.');
+		var lastDot = rawToken.lastIndexOf('.');
+		if (firstDot <= 0 || lastDot == firstDot || rawToken.indexOf('.', firstDot + 1) != lastDot) {
 			throw new BadJwtFormatTokenException(StringFormatter.format("invalid toke: {}", rawToken));
 		}
 
-		var result = jwtValidator.validateToken(token.asString());
+		// 先取得缓存的代数，校验期间密钥发生变化时不缓存本次的结果
+		var generation = verifiedTokenCache != null ? verifiedTokenCache.getGeneration() : 0L;
+		var decodedResult = jwtValidator.validateAndDecode(rawToken);
 
-		switch (result) {
+		switch (decodedResult.getResult()) {
 			case INVALID_JWT_FORMAT:
 				throw new BadJwtFormatTokenException(StringFormatter.format("invalid toke: {}", rawToken));
 			case INVALID_SIGNATURE:
@@ -55,14 +68,21 @@ public final UserDetails convert(@Nullable Token token) throws AuthenticationExc
 				break;
 		}
 
-		var decoder = Base64.getUrlDecoder();
-		var headerJson = new String(decoder.decode(parts[0].getBytes(UTF_8)));
-		var payloadJson = new String(decoder.decode(parts[1].getBytes(UTF_8)));
+		// 复用校验时已经解码的令牌
+		var decodedJwt = decodedResult.getDecodedJwt();
+		var claims = decodedJwt != null ? JwtClaimsView.of(decodedJwt) : JwtClaimsView.of(rawToken);
 
-		return doAuthenticate(
-			headerJson,
-			payloadJson
-		);
+		if (verifiedTokenCache != null && decodedJwt != null) {
+			verifiedTokenCache.put(token, claims, decodedJwt.getExpiresAtAsInstant(), generation);
+		}
+
+		return doAuthenticate(claims);
+	}
+
+	// 默认解码为 JSON 字符串后交给 doAuthenticate(String, String)。希望直接读取声明的子类请继承 AbstractJwtClaimsToUserConverter
+	@Nullable
+	protected UserDetails doAuthenticate(JwtClaimsView claims) throws AuthenticationException {
+		return doAuthenticate(claims.getHeaderJson(), claims.getPayloadJson());
 	}
 
 	@Nullable
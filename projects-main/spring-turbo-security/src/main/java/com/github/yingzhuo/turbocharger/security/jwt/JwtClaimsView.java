@@ -0,0 +1,232 @@
+package com.github.yingzhuo.turbocharger.security.jwt;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class JwtClaimsView {
+
+	/*
+	 * 令牌 header 与 payload 的只读视图，按需解码与解析。
+	 *
+	 * 1. 由 DecodedJWT 创建时，直接使用校验时已经解析好的声明，不再重复解码。
+	 * 2. 由原始令牌创建时，首次读取声明时把 payload 解码为字节，并用 JsonParser 流式读取顶层的声明，只解析一次。
+	 *    只支持标量与标量组成的数组，嵌套对象请使用 getPayloadJson() 自行解析。
+	 * 3. getHeaderJson() 与 getPayloadJson() 只在被调用时解码为字符串，并且只解码一次。
+	 * 4. 两种来源的读取规则相同:
+	 *    contains 在声明存在时为 true (包括值为 null 的声明)；getString/getLong/getBoolean 只在类型匹配时返回值；
+	 *    getStringList 对数组返回其中的字符串元素，对单个字符串返回只含该字符串的列表，其他情况返回空列表。
+	 * 5. 创建后不可变，可以被多个线程共享 (比如放入 VerifiedTokenCache)。
+	 */
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	// 流式解析时嵌套对象与 null 的占位，只表示声明存在
+	private static final Object NESTED_OBJECT = new Object();
+	private static final Object NULL_VALUE = new Object();
+
+	private final String headerSegment;
+	private final String payloadSegment;
+	private final @Nullable DecodedJWT decodedJwt;
+	private volatile @Nullable String headerJson;
+	private volatile @Nullable String payloadJson;
+	private volatile @Nullable Map<String, Object> claims;
+
+	private JwtClaimsView(String headerSegment, String payloadSegment, @Nullable DecodedJWT decodedJwt) {
+		this.headerSegment = headerSegment;
+		this.payloadSegment = payloadSegment;
+		this.decodedJwt = decodedJwt;
+	}
+
+	public static JwtClaimsView of(DecodedJWT decodedJwt) {
+		Assert.notNull(decodedJwt, "decodedJwt is required");
+		return new JwtClaimsView(decodedJwt.getHeader(), decodedJwt.getPayload(), decodedJwt);
+	}
+
+	public static JwtClaimsView of(String rawToken) {
+		Assert.notNull(rawToken, "rawToken is required");
+
+		var first = rawToken.indexOf('.');
+		var last = rawToken.lastIndexOf('.');
+		Assert.isTrue(first > 0 && last > first, "invalid token");
+		return new JwtClaimsView(rawToken.substring(0, first), rawToken.substring(first + 1, last), null);
+	}
+
+	public String getHeaderJson() {
+		var result = headerJson;
+		if (result == null) {
+			// 并发时可能重复解码，结果相同，无需加锁
+			result = new String(Base64.getUrlDecoder().decode(headerSegment), UTF_8);
+			headerJson = result;
+		}
+		return result;
+	}
+
+	public String getPayloadJson() {
+		var result = payloadJson;
+		if (result == null) {
+			result = new String(Base64.getUrlDecoder().decode(payloadSegment), UTF_8);
+			payloadJson = result;
+		}
+		return result;
+	}
+
+	public boolean contains(String name) {
+		if (decodedJwt != null) {
+			return !decodedJwt.getClaim(name).isMissing();
+		}
+		return claims().containsKey(name);
+	}
+
+	@Nullable
+	public String getString(String name) {
+		if (decodedJwt != null) {
+			var claim = claimOf(name);
+			return claim != null ? claim.asString() : null;
+		}
+		return claims().get(name) instanceof String s ? s : null;
+	}
+
+	@Nullable
+	public Long getLong(String name) {
+		if (decodedJwt != null) {
+			var claim = claimOf(name);
+			return claim != null ? claim.asLong() : null;
+		}
+		return claims().get(name) instanceof Number n ? n.longValue() : null;
+	}
+
+	@Nullable
+	public Boolean getBoolean(String name) {
+		if (decodedJwt != null) {
+			var claim = claimOf(name);
+			return claim != null ? claim.asBoolean() : null;
+		}
+		return claims().get(name) instanceof Boolean b ? b : null;
+	}
+
+	public List<String> getStringList(String name) {
+		if (decodedJwt != null) {
+			var claim = claimOf(name);
+			if (claim == null) {
+				return List.of();
+			}
+			// 不是数组时 asList 返回 null
+			var list = claim.asList(Object.class);
+			if (list != null) {
+				return stringsOf(list);
+			}
+			var s = claim.asString();
+			return s != null ? List.of(s) : List.of();
+		}
+
+		var value = claims().get(name);
+		if (value instanceof List<?> list) {
+			return stringsOf(list);
+		}
+		return value instanceof String s ? List.of(s) : List.of();
+	}
+
+	@Nullable
+	public String getSubject() {
+		return getString("sub");
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	private static List<String> stringsOf(List<?> list) {
+		var result = new ArrayList<String>(list.size());
+		for (var element : list) {
+			if (element instanceof String s) {
+				result.add(s);
+			}
+		}
+		return result;
+	}
+
+	@Nullable
+	private Claim claimOf(String name) {
+		Assert.state(decodedJwt != null, "decodedJwt is null");
+		var claim = decodedJwt.getClaim(name);
+		return claim.isMissing() || claim.isNull() ? null : claim;
+	}
+
+	private Map<String, Object> claims() {
+		var result = claims;
+		if (result == null) {
+			// 并发时可能重复解析，结果相同，无需加锁
+			// 直接解析解码后的字节，不经过 String，也不填充 payloadJson
+			result = parseClaims(Base64.getUrlDecoder().decode(payloadSegment));
+			claims = result;
+		}
+		return result;
+	}
+
+	private static Map<String, Object> parseClaims(byte[] payload) {
+		var result = new HashMap<String, Object>();
+
+		try (var parser = JSON_FACTORY.createParser(payload)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return Map.of();
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				var name = parser.currentName();
+				var token = parser.nextToken();
+
+				if (token == JsonToken.START_ARRAY) {
+					var list = new ArrayList<>();
+					while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+						var value = scalarOf(parser, token);
+						if (value != null) {
+							list.add(value);
+						} else {
+							parser.skipChildren();
+						}
+					}
+					result.put(name, list);
+				} else {
+					var value = scalarOf(parser, token);
+					if (value != null) {
+						result.put(name, value);
+					} else if (token == JsonToken.VALUE_NULL) {
+						result.put(name, NULL_VALUE);
+					} else if (token == JsonToken.START_OBJECT) {
+						result.put(name, NESTED_OBJECT);
+						parser.skipChildren();
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return Collections.unmodifiableMap(result);
+	}
+
+	@Nullable
+	private static Object scalarOf(JsonParser parser, @Nullable JsonToken token) throws IOException {
+		if (token == null) {
+			return null;
+		}
+
+		return switch (token) {
+			case VALUE_STRING -> parser.getText();
+			case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+			case VALUE_TRUE -> Boolean.TRUE;
+			case VALUE_FALSE -> Boolean.FALSE;
+			default -> null;
+		};
+	}
+
+}
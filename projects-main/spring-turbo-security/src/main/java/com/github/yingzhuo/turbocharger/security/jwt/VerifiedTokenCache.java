@@ -0,0 +1,177 @@
+package com.github.yingzhuo.turbocharger.security.jwt;
+
+import com.github.yingzhuo.turbocharger.jwt.VerificationKeyListener;
+import com.github.yingzhuo.turbocharger.security.token.Token;
+import com.github.yingzhuo.turbocharger.security.token.blacklist.TokenBlacklistManager;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class VerifiedTokenCache implements VerificationKeyListener {
+
+	/*
+	 * 缓存已通过校验的令牌及其声明视图 (JwtClaimsView)，同一个令牌再次出现时不必重新验签 (RSA/SM2 等非对称算法开销很大)。
+	 *
+	 * 1. 以签名段作为键，命中后还要比较完整的令牌，防止签名段相同但 header 或 payload 被篡改的令牌命中。
+	 * 2. 条目在令牌的 exp 时刻失效，并且不超过 maximumTtl。没有 exp 的令牌只按 maximumTtl 失效。
+	 * 3. 配置了 TokenBlacklistManager 时，命中后仍然检查黑名单，已吊销的令牌不会因为缓存而继续有效。
+	 *    TokenAuthenticationFilter 在转换令牌之前已经检查过黑名单，与其一起使用时不要再把 TokenBlacklistManager 传给本缓存，
+	 *    否则每次命中都要重复检查一次。只有在过滤器之外使用转换器时才需要在这里检查。
+	 * 4. 按访问顺序淘汰 (LRU)，条目数达到上限时淘汰最久未使用的条目。
+	 *    已失效的条目在读取时删除，写入时顺带从最久未使用的一端清除少量已失效的条目，开销均摊到每次写入。
+	 * 5. 缓存不感知密钥的变化。请把本缓存注册到 KeyRotatingJwtService 或 JwtServiceImpl (addVerificationKeyListener)，
+	 *    移除或替换密钥、重建 JWTVerifier 时会调用 invalidateAll()，否则旧密钥签发的令牌在条目失效前仍然有效。
+	 * 6. 校验与 put 之间密钥可能发生变化。调用者在校验之前取得 getGeneration()，put 时传入，
+	 *    期间发生过 invalidateAll() 则不缓存，用旧密钥校验通过的令牌不会在失效之后被放入缓存。
+	 */
+
+	// 每次写入最多顺带清除的已失效条目数
+	private static final int EXPIRE_BATCH_SIZE = 8;
+
+	private final int maximumSize;
+	private final long maximumTtlInMillis;
+	private final @Nullable TokenBlacklistManager tokenBlacklistManager;
+	private final LinkedHashMap<String, Entry> entries;
+
+	// 每次 invalidateAll() 加一，只在 entries 的锁内修改
+	private volatile long generation = 0L;
+
+	public VerifiedTokenCache(int maximumSize, Duration maximumTtl) {
+		this(maximumSize, maximumTtl, null);
+	}
+
+	public VerifiedTokenCache(int maximumSize, Duration maximumTtl, @Nullable TokenBlacklistManager tokenBlacklistManager) {
+		Assert.isTrue(maximumSize > 0, "maximumSize should > 0");
+		Assert.notNull(maximumTtl, "maximumTtl is required");
+		Assert.isTrue(maximumTtl.toMillis() > 0, "maximumTtl should >= 1ms");
+
+		this.maximumSize = maximumSize;
+		this.maximumTtlInMillis = maximumTtl.toMillis();
+		this.tokenBlacklistManager = tokenBlacklistManager;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > VerifiedTokenCache.this.maximumSize;
+			}
+		};
+	}
+
+	@Nullable
+	public JwtClaimsView get(Token token) {
+		Assert.notNull(token, "token is required");
+
+		var rawToken = token.asString();
+		var key = signatureOf(rawToken);
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.isExpired(System.currentTimeMillis())) {
+				entries.remove(key);
+				return null;
+			}
+		}
+
+		if (!entry.rawToken().equals(rawToken)) {
+			return null;
+		}
+
+		if (tokenBlacklistManager != null) {
+			// 已吊销的令牌抛出 BlacklistTokenException
+			tokenBlacklistManager.verify(token);
+		}
+
+		return entry.claims();
+	}
+
+	// 校验令牌之前调用，结果传给 put(Token, JwtClaimsView, Instant, long)
+	public long getGeneration() {
+		return generation;
+	}
+
+	public void put(Token token, JwtClaimsView claims, @Nullable Instant expiresAt, long expectedGeneration) {
+		Assert.notNull(token, "token is required");
+		Assert.notNull(claims, "claims is required");
+
+		var now = System.currentTimeMillis();
+		var deadline = now + maximumTtlInMillis;
+		if (expiresAt != null) {
+			deadline = Math.min(deadline, expiresAt.toEpochMilli());
+		}
+		if (deadline <= now) {
+			return;
+		}
+
+		var rawToken = token.asString();
+		synchronized (entries) {
+			// 校验之后缓存已被清空过，校验的结果可能已经不再成立
+			if (generation != expectedGeneration) {
+				return;
+			}
+			expireEldest(now);
+			entries.put(signatureOf(rawToken), new Entry(rawToken, claims, deadline));
+		}
+	}
+
+	public void invalidate(Token token) {
+		Assert.notNull(token, "token is required");
+
+		var rawToken = token.asString();
+		var key = signatureOf(rawToken);
+		synchronized (entries) {
+			var entry = entries.get(key);
+			if (entry != null && entry.rawToken().equals(rawToken)) {
+				entries.remove(key);
+			}
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (entries) {
+			generation++;
+			entries.clear();
+		}
+	}
+
+	@Override
+	public void onVerificationKeysChanged() {
+		invalidateAll();
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	// -----------------------------------------------------------------------------------------------------------------
+
+	// 调用者持有 entries 的锁
+	private void expireEldest(long now) {
+		var iterator = entries.values().iterator();
+		for (int i = 0; i < EXPIRE_BATCH_SIZE && iterator.hasNext(); i++) {
+			if (!iterator.next().isExpired(now)) {
+				break;
+			}
+			iterator.remove();
+		}
+	}
+
+	private String signatureOf(String rawToken) {
+		return rawToken.substring(rawToken.lastIndexOf('.') + 1);
+	}
+
+	private record Entry(String rawToken, JwtClaimsView claims, long deadline) {
+		private boolean isExpired(long now) {
+			return deadline <= now;
+		}
+	}
+
+}